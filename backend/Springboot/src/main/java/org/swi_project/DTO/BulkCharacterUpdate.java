@@ -0,0 +1,35 @@
+package org.swi_project.DTO;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * One mutation applied to many characters at once. Targets either an explicit id list
+ * or every character matching the filter.
+ */
+public record BulkCharacterUpdate(@NotNull Operation operation,
+                                  Integer amount,
+                                  String status,
+                                  List<Integer> ids,
+                                  @Valid Filter filter) {
+
+    public enum Operation {
+        /** Restores {@code amount} HP up to the maximum, or fully heals and revives without one. */
+        HEAL,
+        /** Removes {@code amount} HP, stopping at zero. */
+        DAMAGE,
+        /** Sets the status to {@code status}. */
+        SET_STATUS,
+        /** Raises the level by {@code amount} (one by default), stopping at 20. */
+        LEVEL_UP
+    }
+
+    public record Filter(String status, String race, String characterClass, Integer minLevel, Integer maxLevel) {
+
+        public boolean isEmpty() {
+            return status == null && race == null && characterClass == null && minLevel == null && maxLevel == null;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.swi_project.DTO;
+
+/**
+ * List view of a character. Race and class are reduced to their names.
+ */
+public record CharacterSummary(Integer id, String name, Integer level, String characterClass, String race,
+                               Integer currentHp, Integer maxHp, String status) {
+}
@@ -0,0 +1,8 @@
+package org.swi_project.DTO;
+
+/**
+ * Per-character result of a bulk update.
+ */
+public record CharacterVitals(Integer id, Integer level, Integer currentHp, Integer maxHp, String status,
+                              Long version) {
+}
@@ -0,0 +1,7 @@
+package org.swi_project.DTO;
+
+/**
+ * List view of a location without its monsters and NPCs.
+ */
+public record LocationSummary(Integer id, String name) {
+}
@@ -0,0 +1,8 @@
+package org.swi_project.DTO;
+
+/**
+ * List view of a monster without its description, abilities and loot.
+ */
+public record MonsterSummary(Integer id, String name, String type, Integer health, Integer attack,
+                             Integer defense, Boolean boss) {
+}
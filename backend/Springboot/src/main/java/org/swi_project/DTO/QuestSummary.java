@@ -0,0 +1,7 @@
+package org.swi_project.DTO;
+
+/**
+ * List view of a quest without its description and participants.
+ */
+public record QuestSummary(Integer id, String title, String type, Boolean completion) {
+}
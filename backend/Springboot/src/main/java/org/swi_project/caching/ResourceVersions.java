@@ -0,0 +1,130 @@
+package org.swi_project.caching;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Version counters per resource type, used as weak ETags for conditional GETs. Every
+ * write bumps the counters of the resources it changes; a read is tagged with the
+ * counters of all resources that appear in its JSON, so a nested change (e.g. an item
+ * held by a character) also invalidates the outer representation.
+ * <p>
+ * Counters are rows of {@code resource_version}, so every instance tags with the same
+ * versions. A bump updates the row in the writing transaction, just before it commits:
+ * the new version becomes visible together with the data, and a replica that serves the
+ * new tag already has the new body.
+ */
+@Component
+public class ResourceVersions {
+
+    public static final String CHARACTERS = "characters";
+    public static final String ITEMS = "items";
+    public static final String SPELLS = "spells";
+    public static final String MONSTERS = "monsters";
+    public static final String QUESTS = "quests";
+
+    // Clients may keep the body but have to revalidate it on every use.
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+
+    public ResourceVersions(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Bumps the given resources as the last statement of the current transaction, or in a
+     * transaction of its own outside one, so no reader can tag the old data with the new
+     * version. Deferring the update keeps the counter rows locked only while committing.
+     */
+    public void bump(String... resources) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    increment(resources);
+                }
+
+                // Ahead of the change feed's insert, so every writer locks the counters first.
+                @Override
+                public int getOrder() {
+                    return Ordered.LOWEST_PRECEDENCE - 1;
+                }
+            });
+        } else {
+            transaction.executeWithoutResult(status -> increment(resources));
+        }
+    }
+
+    /**
+     * Weak, since the same version is served gzipped or not; the servlet container does not
+     * compress responses that carry a strong tag. The tag only validates caches; conditional
+     * writes take the entity version instead (see MergePatchService).
+     */
+    public String etag(String... resources) {
+        Map<String, Long> versions = versions(resources);
+        StringBuilder tag = new StringBuilder("W/\"");
+        for (int i = 0; i < resources.length; i++) {
+            tag.append(i == 0 ? "" : "-").append(versions.getOrDefault(resources[i], 0L));
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Tags the response with the current version of {@code resources} and answers the
+     * request's {@code If-None-Match}. When this returns true a 304 has been prepared and
+     * the handler should return {@code null} without reading anything. The tag does not
+     * name the body format, so the response varies on {@code Accept}: a cache must not
+     * answer a CBOR request with the JSON it stored under the same tag.
+     * <p>
+     * Called inside the handler's read-only transaction, the versions are read from the
+     * same database, and snapshot, as the body.
+     */
+    public boolean checkNotModified(ServletWebRequest request, String... resources) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            if (!response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        return request.checkNotModified(etag(resources));
+    }
+
+    private Map<String, Long> versions(String... resources) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT resource, version FROM resource_version WHERE resource IN (:resources)")
+                .setParameter("resources", List.of(resources))
+                .getResultList();
+        Map<String, Long> versions = new HashMap<>();
+        for (Object[] row : rows) {
+            versions.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return versions;
+    }
+
+    // One statement over the sorted names, so concurrent writers lock the rows in the same order.
+    private void increment(String... resources) {
+        entityManager.createNativeQuery(
+                        "UPDATE resource_version SET version = version + 1 WHERE resource IN (:resources)")
+                .setParameter("resources", new TreeSet<>(List.of(resources)))
+                .executeUpdate();
+    }
+}
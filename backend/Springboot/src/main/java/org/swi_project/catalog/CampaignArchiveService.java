@@ -0,0 +1,271 @@
+package org.swi_project.catalog;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.reference.ReferenceDataRegistry;
+import org.swi_project.search.SearchIndex;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Exports campaign tables as NDJSON and restores a campaign bundle. Rows are read with a
+ * streaming JDBC query and written one at a time, and restores insert in JDBC batches, so
+ * neither direction holds more than a batch of rows in memory. Working on table rows
+ * rather than entities keeps ids and join tables intact across a round trip.
+ */
+@Service
+@Slf4j
+public class CampaignArchiveService {
+
+    public static final String HEADER_TABLE = "campaign";
+    public static final int FORMAT_VERSION = 1;
+
+    // Export name -> table, ordered so every row comes after the rows it references.
+    static final Map<String, String> TABLES = new LinkedHashMap<>();
+
+    static {
+        TABLES.put("races", "race");
+        TABLES.put("character-classes", "characterclass");
+        TABLES.put("items", "item");
+        TABLES.put("spells", "spell");
+        TABLES.put("monsters", "monster");
+        TABLES.put("locations", "location");
+        TABLES.put("quests", "quest");
+        TABLES.put("characters", "game_character");
+        TABLES.put("npcs", "npc");
+        TABLES.put("monster-placements", "monstersinlocation");
+        TABLES.put("character-items", "charitems");
+        TABLES.put("character-spells", "charspells");
+        TABLES.put("character-quests", "charquest");
+        TABLES.put("owned-monsters", "ownedmonsterbychar");
+        TABLES.put("monster-loot", "lootdropped");
+    }
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdSequenceSeeder idSequenceSeeder;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final ResourceVersions resourceVersions;
+    private final SearchIndex searchIndex;
+    private final int batchSize;
+
+    public CampaignArchiveService(DataSource dataSource,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  IdSequenceSeeder idSequenceSeeder,
+                                  ReferenceDataRegistry referenceDataRegistry,
+                                  ResourceVersions resourceVersions,
+                                  SearchIndex searchIndex,
+                                  @Value("${export.fetch-size:500}") int fetchSize,
+                                  @Value("${import.chunk-size:500}") int batchSize) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplate = jdbcTemplate;
+        // A campaign export reads every table from one snapshot.
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.idSequenceSeeder = idSequenceSeeder;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.resourceVersions = resourceVersions;
+        this.searchIndex = searchIndex;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the table behind an export name, so callers can reject a bad name before
+     * they start writing the response.
+     */
+    public String requireTable(String name) {
+        String table = TABLES.get(name);
+        if (table == null) {
+            throw new BadRequestException("Unsupported export type: " + name);
+        }
+        return table;
+    }
+
+    /**
+     * Writes every row of one table as a JSON object per line, keyed by column name.
+     */
+    public void exportTable(String name, OutputStream out) {
+        String table = requireTable(name);
+        ObjectWriter writer = objectMapper.writer();
+        snapshotTransaction.executeWithoutResult(status -> {
+            try (Stream<Map<String, Object>> rows = streamRows(table)) {
+                rows.forEach(row -> writeLine(writer, row, out));
+            }
+        });
+    }
+
+    /**
+     * Writes a header line followed by every campaign table as {@link ArchiveLine}s, in an
+     * order that {@link #restore} can insert without violating foreign keys.
+     */
+    public void exportCampaign(OutputStream out) {
+        ObjectWriter writer = objectMapper.writer();
+        snapshotTransaction.executeWithoutResult(status -> {
+            writeLine(writer, new ArchiveLine(HEADER_TABLE, Map.of("format", FORMAT_VERSION)), out);
+            TABLES.forEach((name, table) -> {
+                try (Stream<Map<String, Object>> rows = streamRows(table)) {
+                    rows.forEach(row -> writeLine(writer, new ArchiveLine(name, row), out));
+                }
+            });
+        });
+    }
+
+    /**
+     * Replaces all campaign data with the contents of a bundle written by
+     * {@link #exportCampaign}. Runs in one transaction, so a bad bundle changes nothing.
+     */
+    public Map<String, Integer> restore(InputStream in) throws IOException {
+        Map<String, Integer> restored = new LinkedHashMap<>();
+        try (MappingIterator<ArchiveLine> lines = objectMapper.readerFor(ArchiveLine.class).readValues(in)) {
+            if (!lines.hasNextValue() || !HEADER_TABLE.equals(lines.nextValue().table())) {
+                throw new BadRequestException("Not a campaign archive");
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> tables = new ArrayList<>(TABLES.values());
+                for (int i = tables.size() - 1; i >= 0; i--) {
+                    jdbcTemplate.update("DELETE FROM " + tables.get(i));
+                }
+                TABLES.keySet().forEach(name -> restored.put(name, 0));
+                insertAll(lines, restored);
+            });
+        }
+
+        idSequenceSeeder.seed();
+        referenceDataRegistry.reload();
+        searchIndex.rebuild();
+        resourceVersions.bump(ResourceVersions.CHARACTERS, ResourceVersions.ITEMS, ResourceVersions.SPELLS,
+                ResourceVersions.MONSTERS, ResourceVersions.QUESTS);
+        log.info("Restored campaign: {}", restored);
+        return restored;
+    }
+
+    private void insertAll(MappingIterator<ArchiveLine> lines, Map<String, Integer> restored) {
+        Map<String, Set<String>> columnsByTable = new HashMap<>();
+        Batch batch = null;
+        while (true) {
+            ArchiveLine line;
+            try {
+                if (!lines.hasNextValue()) {
+                    break;
+                }
+                line = lines.nextValue();
+            } catch (IOException e) {
+                throw new BadRequestException("Malformed archive line: " + e.getMessage());
+            }
+            String table = TABLES.get(line.table());
+            if (table == null) {
+                throw new BadRequestException("Unknown table in archive: " + line.table());
+            }
+            List<String> columns = new ArrayList<>(line.row().keySet());
+            if (batch == null || !batch.matches(line.table(), columns) || batch.rows.size() >= batchSize) {
+                flush(batch, restored);
+                Set<String> known = columnsByTable.computeIfAbsent(table, this::columnsOf);
+                for (String column : columns) {
+                    if (!known.contains(column.toLowerCase(Locale.ROOT))) {
+                        throw new BadRequestException("Unknown column " + column + " in " + line.table());
+                    }
+                }
+                batch = new Batch(line.table(), table, columns);
+            }
+            batch.rows.add(columns.stream().map(line.row()::get).toArray());
+        }
+        flush(batch, restored);
+    }
+
+    private void flush(Batch batch, Map<String, Integer> restored) {
+        if (batch == null || batch.rows.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO " + batch.table + " (" + String.join(", ", batch.columns) + ") VALUES ("
+                + String.join(", ", batch.columns.stream().map(c -> "?").toList()) + ")";
+        try {
+            jdbcTemplate.batchUpdate(sql, batch.rows);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Archive rejected for " + batch.name + ": "
+                    + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+        restored.merge(batch.name, batch.rows.size(), Integer::sum);
+        batch.rows.clear();
+    }
+
+    private Set<String> columnsOf(String table) {
+        return jdbcTemplate.query("SELECT * FROM " + table + " WHERE 1 = 0", rs -> {
+            Set<String> columns = new TreeSet<>();
+            for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                columns.add(rs.getMetaData().getColumnLabel(i).toLowerCase(Locale.ROOT));
+            }
+            return columns;
+        });
+    }
+
+    private Stream<Map<String, Object>> streamRows(String table) {
+        return streamingJdbcTemplate.queryForStream("SELECT * FROM " + table, new ColumnMapRowMapper());
+    }
+
+    private static void writeLine(ObjectWriter writer, Object value, OutputStream out) {
+        try {
+            out.write(writer.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * One line of a campaign bundle: a row of the named table, keyed by column name.
+     */
+    public record ArchiveLine(String table, Map<String, Object> row) {
+    }
+
+    private static final class Batch {
+        private final String name;
+        private final String table;
+        private final List<String> columns;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private Batch(String name, String table, List<String> columns) {
+            this.name = name;
+            this.table = table;
+            this.columns = columns;
+        }
+
+        private boolean matches(String name, List<String> columns) {
+            return this.name.equals(name) && this.columns.equals(columns);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.swi_project.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.catalog.ImportReport.RowError;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.models.Item;
+import org.swi_project.models.Monster;
+import org.swi_project.models.NPC;
+import org.swi_project.models.Spell;
+import org.swi_project.search.SearchDocument;
+import org.swi_project.search.SearchIndex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports catalog entities from a JSON array or NDJSON stream. Rows are parsed one at a
+ * time, validated with the entities' constraints and inserted in chunks, each chunk in
+ * its own transaction with JDBC batching, so memory use does not grow with the payload.
+ */
+@Service
+@Slf4j
+public class CatalogImportService {
+
+    private static final Map<String, Target<?>> TARGETS = Map.of(
+            "items", new Target<>(Item.class, item -> item.setId(null), SearchDocument::of, ResourceVersions.ITEMS),
+            "spells", new Target<>(Spell.class, spell -> spell.setId(null), SearchDocument::of, ResourceVersions.SPELLS),
+            "monsters", new Target<>(Monster.class, monster -> monster.setId(null), SearchDocument::of,
+                    ResourceVersions.MONSTERS),
+            "npcs", new Target<>(NPC.class, npc -> npc.setId(null), SearchDocument::of, null));
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions resourceVersions;
+    private final SearchIndex searchIndex;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public CatalogImportService(EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                ResourceVersions resourceVersions,
+                                SearchIndex searchIndex,
+                                @Value("${import.chunk-size:500}") int chunkSize,
+                                @Value("${import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.resourceVersions = resourceVersions;
+        this.searchIndex = searchIndex;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportReport importRows(String type, InputStream body) throws IOException {
+        Target<?> target = TARGETS.get(type);
+        if (target == null) {
+            throw new BadRequestException("Unsupported import type: " + type);
+        }
+        ImportReport report = run(target, body);
+        if (report.imported() > 0 && target.resource() != null) {
+            resourceVersions.bump(target.resource());
+        }
+        log.info("Imported {} {}, rejected {}", report.imported(), type, report.rejected());
+        return report;
+    }
+
+    private <T> ImportReport run(Target<T> target, InputStream body) throws IOException {
+        Progress<T> progress = new Progress<>();
+        int row = 0;
+        try (MappingIterator<T> rows = objectMapper.readerFor(target.type()).readValues(body)) {
+            while (true) {
+                T entity;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    entity = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    // The iterator skips to the next row after a binding error.
+                    progress.reject(row, e.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException e) {
+                    progress.reject(row, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    break;
+                }
+
+                String violations = validate(entity);
+                if (violations != null) {
+                    progress.reject(row, violations);
+                    continue;
+                }
+                target.clearId().accept(entity);
+                progress.chunk.add(new Row<>(row, entity));
+                if (progress.chunk.size() >= chunkSize) {
+                    write(target, progress);
+                }
+            }
+        }
+        write(target, progress);
+        return new ImportReport(progress.imported, progress.rejected, progress.errors,
+                progress.rejected > progress.errors.size());
+    }
+
+    private <T> String validate(T entity) {
+        Set<ConstraintViolation<T>> violations = validator.validate(entity);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private <T> void write(Target<T> target, Progress<T> progress) {
+        List<Row<T>> chunk = progress.chunk;
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Row<T>> committed = chunk;
+        try {
+            insert(chunk);
+        } catch (RuntimeException e) {
+            // One rejected row fails the whole batch, so retry the chunk row by row to find it.
+            committed = new ArrayList<>(chunk.size());
+            for (Row<T> row : chunk) {
+                target.clearId().accept(row.entity());
+                try {
+                    insert(List.of(row));
+                    committed.add(row);
+                } catch (RuntimeException rowFailure) {
+                    progress.reject(row.number(), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        progress.imported += committed.size();
+        committed.forEach(row -> index(target, row));
+        progress.chunk = new ArrayList<>(chunkSize);
+    }
+
+    // The row is already committed, so a failure here must not retry or reject it; the
+    // periodic rebuild of the index picks it up.
+    private <T> void index(Target<T> target, Row<T> row) {
+        try {
+            searchIndex.put(target.document().apply(row.entity()));
+        } catch (RuntimeException e) {
+            log.warn("Could not index imported {} row {}", target.resource(), row.number(), e);
+        }
+    }
+
+    private <T> void insert(List<Row<T>> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            rows.forEach(row -> entityManager.persist(row.entity()));
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private record Target<T>(Class<T> type, Consumer<T> clearId, Function<T, SearchDocument> document,
+                             String resource) {
+    }
+
+    private record Row<T>(int number, T entity) {
+    }
+
+    private class Progress<T> {
+        private List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        private final List<RowError> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        private void reject(int row, String error) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(row, error));
+            }
+        }
+    }
+}
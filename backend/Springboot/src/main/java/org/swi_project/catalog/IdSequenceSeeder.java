@@ -0,0 +1,47 @@
+package org.swi_project.catalog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Catalog entities take their ids from pooled sequences so inserts can be batched. MySQL
+ * has no sequences, so Hibernate keeps each one in a single-row table; rows that were
+ * inserted with AUTO_INCREMENT ids are skipped by moving that table past the current
+ * maximum id before the first insert.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceSeeder {
+
+    // Sequence table -> table whose ids it generates.
+    static final Map<String, String> SEQUENCES = Map.of(
+            "item_seq", "item",
+            "spell_seq", "spell",
+            "monster_seq", "monster",
+            "npc_seq", "npc");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (dialect.getSequenceSupport().supportsSequences()) {
+            return;
+        }
+        SEQUENCES.forEach((sequence, table) -> {
+            jdbcTemplate.update("UPDATE " + sequence + " SET next_val = GREATEST(next_val, "
+                    + "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "))");
+            log.debug("Seeded {} from {}", sequence, table);
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package org.swi_project.catalog;
+
+import java.util.List;
+
+/**
+ * Outcome of a catalog import. {@code errors} lists the rejected rows by their 1-based
+ * position in the payload and is cut off after {@code import.max-reported-errors} entries.
+ */
+public record ImportReport(int imported, int rejected, List<RowError> errors, boolean errorsTruncated) {
+
+    public record RowError(int row, String error) {
+    }
+}
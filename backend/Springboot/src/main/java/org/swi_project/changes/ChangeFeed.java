@@ -0,0 +1,447 @@
+package org.swi_project.changes;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes compact change events (type, id, changed fields, new version) to server-sent
+ * event subscribers once the writing transaction commits, so clients can patch what they
+ * display instead of polling.
+ * <p>
+ * Events go through the {@code change_event} table: the writing transaction inserts them
+ * just before it commits, and every instance reads the new rows and hands them to its own
+ * subscribers, so a write on one instance reaches the streams held by all of them. Ids are
+ * taken from the single {@code change_sequence} row, which stays locked until commit, so
+ * events become visible in id order and a reader never skips one.
+ * <p>
+ * Every subscriber has a bounded buffer drained by a small sender pool; a subscriber whose
+ * buffer overflows is disconnected rather than slowing down the writers or the other
+ * subscribers. A client that reconnects with {@code Last-Event-ID}, to any instance, gets
+ * the events it missed from the retained history, or a {@code resync} event when they are
+ * no longer available, after which it should reload.
+ */
+@Component
+@Slf4j
+public class ChangeFeed implements MeterBinder {
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESYNC_EVENT = "resync";
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int historySize;
+    private final Executor sender;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong dropped = new AtomicLong();
+    // Id of the last event handed to the subscribers of this instance.
+    private long position;
+
+    @Autowired
+    public ChangeFeed(ObjectMapper objectMapper, JdbcTemplate jdbcTemplate, EntityManager entityManager,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${changes.timeout-ms:600000}") long timeoutMillis,
+                      @Value("${changes.subscriber-buffer:256}") int bufferSize,
+                      @Value("${changes.history-size:1024}") int historySize,
+                      @Value("${changes.sender-threads:2}") int senderThreads,
+                      @Value("${changes.poll-ms:500}") long pollMillis,
+                      @Value("${changes.heartbeat-ms:20000}") long heartbeatMillis) {
+        this(objectMapper, jdbcTemplate, entityManager, transactionManager, timeoutMillis, bufferSize, historySize,
+                newSender(senderThreads));
+        ScheduledExecutorService scheduler = (ScheduledExecutorService) sender;
+        // Picks up the events written by the other instances.
+        scheduler.scheduleWithFixedDelay(this::pollQuietly, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        // Comments keep proxies from closing idle streams and reveal clients that went away.
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    ChangeFeed(ObjectMapper objectMapper, JdbcTemplate jdbcTemplate, EntityManager entityManager,
+               PlatformTransactionManager transactionManager, long timeoutMillis, int bufferSize, int historySize,
+               Executor sender) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.sender = sender;
+        this.position = lastId();
+    }
+
+    private static ScheduledExecutorService newSender(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "changes-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.complete();
+            } catch (IllegalStateException e) {
+                // The container already closed the response.
+            }
+        }
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("changes.subscribers", subscribers, List::size)
+                .description("Open change streams")
+                .register(registry);
+        FunctionCounter.builder("changes.dropped", dropped, AtomicLong::get)
+                .description("Change streams closed because the client did not keep up")
+                .register(registry);
+    }
+
+    /**
+     * Opens a stream of changes to the given types, or to all types when {@code types} is
+     * null, starting after {@code lastEventId} when the client is reconnecting.
+     */
+    public SseEmitter subscribe(String lastEventId, Set<String> types) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, types);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        synchronized (this) {
+            List<Event> missed = lastEventId != null ? missedSince(lastEventId) : List.of();
+            if (missed != null) {
+                missed = missed.stream().filter(subscriber::wants).toList();
+            }
+            if (missed == null || missed.size() > bufferSize) {
+                subscriber.queue.add(new Event(position, null, RESYNC_EVENT, "{}"));
+                subscriber.after = position;
+            } else {
+                subscriber.queue.addAll(missed);
+                // The client may already have seen events this instance has not read yet.
+                subscriber.after = lastEventId != null ? Math.max(position, Long.parseLong(lastEventId)) : position;
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * Publishes the named properties of {@code entity} together with its id and version.
+     * The properties are read once the transaction has been flushed before commit, when the
+     * version has been incremented; collections are sent as the ids of their elements.
+     */
+    public void changed(String type, Object entity, String... fields) {
+        record(() -> read(type, "changed", entity, fields));
+    }
+
+    public void created(String type, Object entity, String... fields) {
+        record(() -> read(type, "created", entity, fields));
+    }
+
+    /**
+     * Publishes known field values, e.g. taken from a merge patch or a bulk update.
+     */
+    public void changed(String type, int id, Map<String, ?> fields, Long version) {
+        record(() -> new Change(type, id, "changed", new LinkedHashMap<>(fields), version));
+    }
+
+    /**
+     * Publishes the fields of an applied merge patch; removed fields are sent as null.
+     */
+    public void patched(String type, int id, JsonNode patch, long version) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        patch.fields().forEachRemaining(field -> fields.put(field.getKey(), field.getValue()));
+        changed(type, id, fields, version);
+    }
+
+    public void deleted(String type, int id) {
+        record(() -> new Change(type, id, "deleted", null, null));
+    }
+
+    String eventId(long sequence) {
+        return Long.toString(sequence);
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * The events after {@code lastEventId} up to what this instance has read, or null when
+     * the history no longer reaches back that far or the id was never issued.
+     */
+    synchronized List<Event> missedSince(String lastEventId) {
+        long last;
+        try {
+            last = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last < 0 || (last > position && last > lastId())) {
+            return null;
+        }
+        if (last >= position) {
+            return List.of();
+        }
+        List<Event> missed = events("SELECT id, type, data FROM change_event WHERE id > ? AND id <= ? ORDER BY id",
+                last, position);
+        if (missed.isEmpty() || missed.get(0).sequence != last + 1) {
+            return null;
+        }
+        return missed;
+    }
+
+    /**
+     * Hands the events committed since the last poll, by any instance, to the subscribers.
+     */
+    synchronized void poll() {
+        for (Event event : events("SELECT id, type, data FROM change_event WHERE id > ? ORDER BY id", position)) {
+            position = event.sequence;
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(event)) {
+                    drop(subscriber);
+                }
+            }
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Could not read change events", e);
+        }
+    }
+
+    private List<Event> events(String sql, Object... args) {
+        return jdbcTemplate.query(sql,
+                (rs, row) -> new Event(rs.getLong("id"), rs.getString("type"), CHANGE_EVENT, rs.getString("data")),
+                args);
+    }
+
+    private long lastId() {
+        Long lastId = jdbcTemplate.queryForObject("SELECT last_id FROM change_sequence WHERE id = 1", Long.class);
+        return lastId != null ? lastId : 0;
+    }
+
+    /**
+     * Writes the event just before the current transaction commits, or in a transaction of
+     * its own outside one, and wakes the poller once it is visible.
+     */
+    private void record(ChangeSource source) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Flushing increments the entity versions the event reports.
+                    entityManager.flush();
+                    insert(source);
+                }
+
+                @Override
+                public void afterCommit() {
+                    sender.execute(ChangeFeed.this::pollQuietly);
+                }
+            });
+        } else {
+            transaction.executeWithoutResult(status -> insert(source));
+            sender.execute(this::pollQuietly);
+        }
+    }
+
+    private void insert(ChangeSource source) {
+        Change change;
+        String data;
+        try {
+            change = source.get();
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // A lost event only costs the clients a reload; it must not fail the write.
+            log.warn("Could not publish a change event", e);
+            return;
+        }
+        jdbcTemplate.update("UPDATE change_sequence SET last_id = last_id + 1 WHERE id = 1");
+        jdbcTemplate.update("INSERT INTO change_event (id, type, data) VALUES (?, ?, ?)",
+                lastId(), change.type(), data);
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.closed = true;
+        dropped.incrementAndGet();
+        log.debug("Closing change stream that fell {} events behind", bufferSize);
+        // Completing waits for a send in progress, so it must not run on the writing thread.
+        sender.execute(subscriber.emitter::complete);
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat = true;
+            subscriber.schedule();
+        }
+        prune();
+    }
+
+    /**
+     * Keeps the last {@code historySize} events for reconnecting clients.
+     */
+    void prune() {
+        try {
+            jdbcTemplate.update("DELETE FROM change_event WHERE id <= ?", lastId() - historySize);
+        } catch (RuntimeException e) {
+            log.warn("Could not prune change events", e);
+        }
+    }
+
+    private static Change read(String type, String op, Object entity, String... fields) {
+        BeanWrapper bean = new BeanWrapperImpl(entity);
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, value(bean.getPropertyValue(field)));
+        }
+        Object version = bean.isReadableProperty("version") ? bean.getPropertyValue("version") : null;
+        return new Change(type, (Integer) bean.getPropertyValue("id"), op, values, (Long) version);
+    }
+
+    private static Object value(Object value) {
+        if (value instanceof Collection<?> elements) {
+            List<Object> ids = new ArrayList<>(elements.size());
+            for (Object element : elements) {
+                ids.add(new BeanWrapperImpl(element).getPropertyValue("id"));
+            }
+            return ids;
+        }
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface ChangeSource {
+        Change get();
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Change(String type, Integer id, String op, Map<String, Object> fields, Long version) {
+    }
+
+    record Event(long sequence, String type, String name, String data) {
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final Set<String> types;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Events up to this id are already on their way to the client.
+        private volatile long after;
+        private volatile boolean heartbeat;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Set<String> types) {
+            this.emitter = emitter;
+            this.types = types;
+        }
+
+        boolean wants(Event event) {
+            return types == null || types.contains(event.type);
+        }
+
+        /**
+         * Queues the event and wakes the sender; false when the buffer is full.
+         */
+        boolean offer(Event event) {
+            if (event.sequence <= after || !wants(event)) {
+                return true;
+            }
+            if (!queue.offer(event)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                sender.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (heartbeat) {
+                    heartbeat = false;
+                    emitter.send(SseEmitter.event().comment(""));
+                }
+                Event event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(eventId(event.sequence))
+                            .name(event.name)
+                            .data(event.data, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream was completed; the container cleans up.
+                closed = true;
+                subscribers.remove(this);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty() || heartbeat) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.swi_project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.swi_project.datasource.AdmissionControlledDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Puts an admission limiter sized to the pool in front of every Hikari pool, so that
+     * under load (and with virtual threads in particular) requests fail fast with a 503
+     * instead of queueing in the pool for its whole connection timeout.
+     */
+    @Bean
+    static BeanPostProcessor dataSourceAdmission(
+            @Value("${db.admission.enabled:true}") boolean enabled,
+            @Value("${db.admission.timeout-ms:2000}") long timeoutMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof HikariDataSource pool) {
+                    String name = pool.getPoolName() != null ? pool.getPoolName() : beanName;
+                    return new AdmissionControlledDataSource(pool, name, pool.getMaximumPoolSize(), timeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceAdmissionMetrics(Map<String, DataSource> dataSources) {
+        return registry -> {
+            // Routing data sources unwrap to one of the pools, so each limiter is bound once.
+            Set<AdmissionControlledDataSource> bound = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (DataSource dataSource : dataSources.values()) {
+                try {
+                    if (dataSource.isWrapperFor(AdmissionControlledDataSource.class)) {
+                        AdmissionControlledDataSource limiter = dataSource.unwrap(AdmissionControlledDataSource.class);
+                        if (bound.add(limiter)) {
+                            limiter.bindTo(registry);
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not inspect the data source", e);
+                }
+            }
+        };
+    }
+}
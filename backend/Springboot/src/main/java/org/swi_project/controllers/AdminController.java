@@ -0,0 +1,57 @@
+package org.swi_project.controllers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.exception.ResourceNotFoundException;
+import org.swi_project.models.User;
+import org.swi_project.reference.ReferenceDataRegistry;
+import org.swi_project.repositories.UserRepository;
+import org.swi_project.security.RefreshTokenService;
+import org.swi_project.security.TokenRevocationService;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+
+    private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService revocationService;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final ResourceVersions resourceVersions;
+
+    /**
+     * Signs the user out everywhere: bumps the account version so all outstanding access
+     * tokens are rejected, and revokes every refresh token.
+     */
+    @PostMapping("/users/{username}/revoke-tokens")
+    @Transactional
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        refreshTokenService.revokeAll(user);
+        revocationService.revokeUser(username, user.getTokenVersion());
+
+        log.info("Revoked all tokens of user {}", username);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Reloads races and character classes after the reference tables were changed.
+     */
+    @PostMapping("/reference-data/reload")
+    public ResponseEntity<Void> reloadReferenceData() {
+        referenceDataRegistry.reload();
+        // Characters embed their race and class.
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,26 +1,33 @@
 package org.swi_project.controllers;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.swi_project.DTO.AuthResponse;
 import org.swi_project.DTO.LoginRequest;
+import org.swi_project.DTO.RefreshRequest;
 import org.swi_project.DTO.RegisterRequest;
 import org.swi_project.models.User;
 import org.swi_project.models.UserRole;
 import org.swi_project.repositories.UserRepository;
 import org.swi_project.security.JwtUtil;
+import org.swi_project.security.LoginService;
+import org.swi_project.security.RefreshTokenService;
+import org.swi_project.security.TokenRevocationService;
 import org.swi_project.security.UserDetailsServiceImpl;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -28,31 +35,76 @@ import java.util.Map;
 @Slf4j
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
     private final UserDetailsServiceImpl userDetailsService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService revocationService;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        // Continues on the login completion executor, off the BCrypt threads.
+        return loginService.authenticate(request.getUsername(), request.getPassword())
+                .<ResponseEntity<?>>thenApply(user -> {
+                    String token = jwtUtil.generateToken(user);
+                    String refreshToken = refreshTokenService.issue(user);
+
+                    log.info("User {} logged in successfully", user.getUsername());
+                    return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getRole().name(), refreshToken));
+                })
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof DisabledException) {
+                        log.warn("Login attempt for disabled user: {}", request.getUsername());
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(Map.of("error", "Account is disabled"));
+                    }
+                    if (cause instanceof AuthenticationException) {
+                        log.warn("Failed login attempt for user: {}", request.getUsername());
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(Map.of("error", "Invalid username or password"));
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
         try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-            );
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+            User user = rotation.user();
+            String token = jwtUtil.generateToken(user);
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-            String token = jwtUtil.generateToken(userDetails);
+            log.debug("Refreshed token for user {}", user.getUsername());
+            return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getRole().name(), rotation.refreshToken()));
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            User user = userRepository.findByUsername(request.getUsername()).orElseThrow();
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshRequest request) {
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
 
-            log.info("User {} logged in successfully", request.getUsername());
-            return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getRole().name()));
-        } catch (BadCredentialsException e) {
-            log.warn("Failed login attempt for user: {}", request.getUsername());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Invalid username or password"));
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtUtil.extractAllClaims(authHeader.substring(7));
+                if (claims.getId() != null) {
+                    revocationService.revokeToken(claims.getId(), claims.getSubject(), claims.getExpiration().toInstant());
+                }
+                log.info("User {} logged out", claims.getSubject());
+            } catch (JwtException e) {
+                log.debug("Ignoring invalid token on logout: {}", e.getMessage());
+            }
         }
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/register")
@@ -90,6 +142,11 @@ public class AuthController {
             }
 
             String token = authHeader.substring(7);
+            if (revocationService.isRevoked(jwtUtil.toVerifiedToken(jwtUtil.extractAllClaims(token)))) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("valid", false));
+            }
+
             String username = jwtUtil.extractUsername(token);
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
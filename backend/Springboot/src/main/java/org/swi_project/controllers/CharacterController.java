@@ -1,22 +1,37 @@
 package org.swi_project.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.swi_project.DTO.BulkCharacterUpdate;
+import org.swi_project.DTO.CharacterVitals;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.changes.ChangeFeed;
+import org.swi_project.exception.BadRequestException;
 import org.swi_project.exception.ResourceNotFoundException;
+import org.swi_project.inventory.InventoryService;
 import org.swi_project.models.Character;
 import org.swi_project.models.Item;
 import org.swi_project.models.Spell;
+import org.swi_project.pagination.JsonGraph;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.pagination.ListView;
+import org.swi_project.patch.MergePatchService;
 import org.swi_project.repositories.CharacterRepository;
 import org.swi_project.repositories.ItemRepository;
 import org.swi_project.repositories.SpellRepository;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/characters")
@@ -24,18 +39,48 @@ import java.util.Map;
 @Slf4j
 public class CharacterController {
 
+    private static final Set<String> SORTABLE = Set.of("id", "name", "level", "currentHp", "status");
+    private static final Set<String> PATCHABLE = Set.of(
+            "name", "level", "maxHp", "currentHp", "strength", "dexterity", "constitution", "intelligence",
+            "wisdom", "charisma", "status", "background", "alignment", "specialization", "notes");
+    private static final String[] ETAG_SOURCES = {ResourceVersions.CHARACTERS, ResourceVersions.SPELLS,
+            ResourceVersions.ITEMS, ResourceVersions.QUESTS, ResourceVersions.MONSTERS};
+    private static final String[] SUMMARY_FIELDS = {"name", "level", "currentHp", "maxHp", "status"};
+
     private final CharacterRepository characterRepository;
     private final ItemRepository itemRepository;
     private final SpellRepository spellRepository;
+    private final KeysetPager keysetPager;
+    private final ResourceVersions resourceVersions;
+    private final InventoryService inventoryService;
+    private final MergePatchService mergePatchService;
+    private final ChangeFeed changeFeed;
 
+    /**
+     * Lists characters as CharacterSummary rows; {@code view=full} returns the full entities.
+     */
     @GetMapping
-    public List<Character> getAllCharacters() {
-        return characterRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<? extends List<?>> getAllCharacters(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String view) {
+        if (ListView.from(view) == ListView.FULL) {
+            return JsonGraph.initialize(keysetPager.page(characterRepository, SORTABLE, sort, after, limit))
+                    .toResponse();
+        }
+        return keysetPager.page(Character.class, CharacterRepository.SUMMARY, SORTABLE, sort, after, limit).toResponse();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Character> getCharacter(@PathVariable int id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Character> getCharacter(@PathVariable int id, ServletWebRequest request) {
+        if (resourceVersions.checkNotModified(request, ETAG_SOURCES)) {
+            return null;
+        }
         return characterRepository.findById(id)
+                .map(JsonGraph::initialize)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException("Character", id));
     }
@@ -43,11 +88,14 @@ public class CharacterController {
     @PostMapping
     public ResponseEntity<Character> createCharacter(@Valid @RequestBody Character character) {
         Character saved = characterRepository.save(character);
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        changeFeed.created(ResourceVersions.CHARACTERS, saved, SUMMARY_FIELDS);
         log.info("Created character: {}", saved.getName());
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Character> updateCharacter(@PathVariable int id, @Valid @RequestBody Character updatedCharacter) {
         Character character = characterRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Character", id));
@@ -70,27 +118,62 @@ public class CharacterController {
         character.setCurrentHp(updatedCharacter.getCurrentHp());
         character.setMaxHp(updatedCharacter.getMaxHp());
 
+        Character saved = characterRepository.save(character);
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        changeFeed.changed(ResourceVersions.CHARACTERS, saved, SUMMARY_FIELDS);
         log.debug("Updated character id={}", id);
-        return ResponseEntity.ok(characterRepository.save(character));
+        return ResponseEntity.ok(JsonGraph.initialize(saved));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MergePatchService.MERGE_PATCH_JSON)
+    public ResponseEntity<Void> patchCharacter(
+            @PathVariable int id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = mergePatchService.apply(Character.class, "Character", id, patch, PATCHABLE, ifMatch);
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        changeFeed.patched(ResourceVersions.CHARACTERS, id, patch, version);
+        log.debug("Patched character id={}", id);
+        return MergePatchService.patched(version);
     }
 
     @PutMapping("/{id}/heal")
+    @Transactional
     public ResponseEntity<Character> healCharacter(@PathVariable int id) {
         Character character = characterRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Character", id));
         character.setCurrentHp(character.getMaxHp());
-        character.setStatus("Živý");
-        return ResponseEntity.ok(characterRepository.save(character));
+        character.setStatus(Character.STATUS_ALIVE);
+        Character saved = characterRepository.save(character);
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        changeFeed.changed(ResourceVersions.CHARACTERS, saved, "currentHp", "status");
+        return ResponseEntity.ok(JsonGraph.initialize(saved));
     }
 
     @PutMapping("/heal-batch")
-    public ResponseEntity<List<Character>> healParty(@RequestBody List<Integer> characterIds) {
-        List<Character> characters = characterRepository.findAllById(characterIds);
-        for (Character character : characters) {
-            character.setCurrentHp(character.getMaxHp());
-            character.setStatus("Živý");
+    @Transactional
+    public ResponseEntity<List<CharacterVitals>> healParty(@RequestBody List<Integer> characterIds) {
+        characterRepository.bulkUpdate(characterIds,
+                new BulkCharacterUpdate(BulkCharacterUpdate.Operation.HEAL, null, null, characterIds, null));
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        return ResponseEntity.ok(publishVitals(characterRepository.findVitals(characterIds)));
+    }
+
+    /**
+     * Applies one operation to the listed characters, or to all characters matching the
+     * filter, with a single UPDATE, and returns the resulting vitals per character.
+     */
+    @PostMapping("/bulk")
+    @Transactional
+    public ResponseEntity<List<CharacterVitals>> bulkUpdateCharacters(@Valid @RequestBody BulkCharacterUpdate update) {
+        if ((update.ids() == null) == (update.filter() == null)) {
+            throw new BadRequestException("Specify either ids or filter");
         }
-        return ResponseEntity.ok(characterRepository.saveAll(characters));
+        List<Integer> ids = update.ids() != null ? update.ids() : characterRepository.lockIds(update.filter());
+        int updated = characterRepository.bulkUpdate(ids, update);
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        log.info("Applied {} to {} characters", update.operation(), updated);
+        return ResponseEntity.ok(publishVitals(characterRepository.findVitals(ids)));
     }
 
     @DeleteMapping("/{id}")
@@ -99,40 +182,31 @@ public class CharacterController {
             throw new ResourceNotFoundException("Character", id);
         }
         characterRepository.deleteById(id);
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        changeFeed.deleted(ResourceVersions.CHARACTERS, id);
         log.info("Deleted character id={}", id);
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/{characterId}/items/{itemId}")
-    @Transactional
-    public ResponseEntity<?> assignItemToCharacter(
+    public ResponseEntity<Character> assignItemToCharacter(
             @PathVariable int characterId,
             @PathVariable int itemId) {
-        Character character = characterRepository.findById(characterId)
-                .orElseThrow(() -> new ResourceNotFoundException("Character", characterId));
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Item", itemId));
-
-        if (character.getItems().contains(item)) {
-            return ResponseEntity.ok(character);
-        }
-
-        long weapons = character.getItems().stream().filter(Item::isWeapon).count();
-        long rings = character.getItems().stream()
-                .filter(i -> "RING".equalsIgnoreCase(i.getType())).count();
-
-        if (item.isWeapon() && weapons >= 2) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Character can't carry more than 2 weapons."));
-        }
-        if ("RING".equalsIgnoreCase(item.getType()) && rings >= 4) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Character can't wear more than 4 rings."));
-        }
+        Character character = inventoryService.assignItems(characterId, List.of(itemId));
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        changeFeed.changed(ResourceVersions.CHARACTERS, character, "items");
+        log.info("Assigned item {} to character {}", itemId, character.getName());
+        return ResponseEntity.ok(character);
+    }
 
-        character.addItem(item);
-        characterRepository.save(character);
-        log.info("Assigned item {} to character {}", item.getName(), character.getName());
+    @PostMapping("/{characterId}/items")
+    public ResponseEntity<Character> assignItemsToCharacter(
+            @PathVariable int characterId,
+            @RequestBody List<Integer> itemIds) {
+        Character character = inventoryService.assignItems(characterId, itemIds);
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        changeFeed.changed(ResourceVersions.CHARACTERS, character, "items");
+        log.info("Assigned {} items to character {}", itemIds.size(), character.getName());
         return ResponseEntity.ok(character);
     }
 
@@ -150,8 +224,11 @@ public class CharacterController {
         item.setEquipState(false);
         itemRepository.save(item);
         characterRepository.save(character);
+        resourceVersions.bump(ResourceVersions.CHARACTERS, ResourceVersions.ITEMS);
+        changeFeed.changed(ResourceVersions.CHARACTERS, character, "items");
+        changeFeed.changed(ResourceVersions.ITEMS, item, "equipState");
         log.info("Removed item {} from character {}", item.getName(), character.getName());
-        return ResponseEntity.ok(character);
+        return ResponseEntity.ok(JsonGraph.initialize(character));
     }
 
     @PostMapping("/{characterId}/spells/{spellId}")
@@ -167,9 +244,11 @@ public class CharacterController {
         if (!character.getSpells().contains(spell)) {
             character.addSpell(spell);
             characterRepository.save(character);
+            resourceVersions.bump(ResourceVersions.CHARACTERS);
+            changeFeed.changed(ResourceVersions.CHARACTERS, character, "spells");
             log.info("Assigned spell {} to character {}", spell.getName(), character.getName());
         }
-        return ResponseEntity.ok(character);
+        return ResponseEntity.ok(JsonGraph.initialize(character));
     }
 
     @DeleteMapping("/{characterId}/spells/{spellId}")
@@ -184,8 +263,10 @@ public class CharacterController {
 
         character.removeSpell(spell);
         characterRepository.save(character);
+        resourceVersions.bump(ResourceVersions.CHARACTERS);
+        changeFeed.changed(ResourceVersions.CHARACTERS, character, "spells");
         log.info("Removed spell {} from character {}", spell.getName(), character.getName());
-        return ResponseEntity.ok(character);
+        return ResponseEntity.ok(JsonGraph.initialize(character));
     }
 
     @PostMapping("/{characterId}/equip")
@@ -217,6 +298,20 @@ public class CharacterController {
         }
 
         itemRepository.save(item);
-        return ResponseEntity.ok(character);
+        resourceVersions.bump(ResourceVersions.CHARACTERS, ResourceVersions.ITEMS);
+        changeFeed.changed(ResourceVersions.ITEMS, item, "equipState");
+        return ResponseEntity.ok(JsonGraph.initialize(character));
+    }
+
+    private List<CharacterVitals> publishVitals(List<CharacterVitals> vitals) {
+        for (CharacterVitals character : vitals) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("level", character.level());
+            fields.put("currentHp", character.currentHp());
+            fields.put("maxHp", character.maxHp());
+            fields.put("status", character.status());
+            changeFeed.changed(ResourceVersions.CHARACTERS, character.id(), fields, character.version());
+        }
+        return vitals;
     }
 }
@@ -0,0 +1,53 @@
+package org.swi_project.controllers;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.swi_project.catalog.CampaignArchiveService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams table rows as NDJSON straight to the response, optionally gzipped, without
+ * building the export in memory.
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final CampaignArchiveService campaignArchiveService;
+
+    @GetMapping("/campaign")
+    public void exportCampaign(@RequestParam(defaultValue = "false") boolean gzip, HttpServletResponse response)
+            throws IOException {
+        try (OutputStream out = open(response, "campaign", gzip)) {
+            campaignArchiveService.exportCampaign(out);
+        }
+    }
+
+    @GetMapping("/{type}")
+    public void exportTable(@PathVariable String type,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            HttpServletResponse response) throws IOException {
+        campaignArchiveService.requireTable(type);
+        try (OutputStream out = open(response, type, gzip)) {
+            campaignArchiveService.exportTable(type, out);
+        }
+    }
+
+    private static OutputStream open(HttpServletResponse response, String name, boolean gzip) throws IOException {
+        String filename = gzip ? name + ".ndjson.gz" : name + ".ndjson";
+        response.setContentType(gzip ? "application/gzip" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        return gzip ? new GZIPOutputStream(out) : out;
+    }
+}
@@ -0,0 +1,49 @@
+package org.swi_project.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.swi_project.catalog.CampaignArchiveService;
+import org.swi_project.catalog.CatalogImportService;
+import org.swi_project.catalog.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final CatalogImportService catalogImportService;
+    private final CampaignArchiveService campaignArchiveService;
+
+    /**
+     * Imports items, spells, monsters or NPCs from a JSON array or NDJSON body. The body is
+     * read as a stream, and the response reports every rejected row.
+     */
+    @PostMapping(value = "/{type}", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportReport> importCatalog(@PathVariable String type, HttpServletRequest request)
+            throws IOException {
+        return ResponseEntity.ok(catalogImportService.importRows(type, request.getInputStream()));
+    }
+
+    /**
+     * Replaces all campaign data with a bundle from {@code GET /api/export/campaign}, plain
+     * or gzipped. Returns the number of rows restored per table.
+     */
+    @PostMapping(value = "/campaign", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "application/gzip"})
+    public ResponseEntity<Map<String, Integer>> restoreCampaign(HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        if ("application/gzip".equals(request.getContentType())
+                || "gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            in = new GZIPInputStream(in);
+        }
+        return ResponseEntity.ok(campaignArchiveService.restore(in));
+    }
+}
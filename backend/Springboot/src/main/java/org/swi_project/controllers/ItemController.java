@@ -1,16 +1,30 @@
 package org.swi_project.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.swi_project.caching.ResourceVersions;
 import org.swi_project.exception.ResourceNotFoundException;
 import org.swi_project.models.Item;
+import org.swi_project.pagination.FilterQuery;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.patch.MergePatchService;
 import org.swi_project.repositories.ItemRepository;
+import org.swi_project.search.SearchDocument;
+import org.swi_project.search.SearchIndex;
+import org.swi_project.search.SearchType;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/items")
@@ -18,15 +32,40 @@ import java.util.List;
 @Slf4j
 public class ItemController {
 
+    private static final Set<String> SORTABLE = Set.of("id", "name", "type", "weight", "goldValue");
+    private static final Set<String> FILTERABLE = Set.of(
+            "id", "name", "type", "weight", "goldValue", "magic", "equipState", "damageType", "armorClass");
+    private static final Set<String> PATCHABLE = Set.of("name", "type", "description", "weight", "goldValue", "magic", "magicalProperties",
+            "equipState", "damageType", "damageRoll", "armorClass");
+    private static final String[] ETAG_SOURCES = {ResourceVersions.ITEMS};
+
     private final ItemRepository itemRepository;
+    private final KeysetPager keysetPager;
+    private final ResourceVersions resourceVersions;
+    private final SearchIndex searchIndex;
+    private final MergePatchService mergePatchService;
 
     @GetMapping
-    public List<Item> getAllItems() {
-        return itemRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Item>> getAllItems(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam MultiValueMap<String, String> parameters,
+            ServletWebRequest request) {
+        if (resourceVersions.checkNotModified(request, ETAG_SOURCES)) {
+            return null;
+        }
+        Specification<Item> filter = FilterQuery.parse(parameters, FILTERABLE);
+        return keysetPager.page(itemRepository, filter, SORTABLE, sort, after, limit).toResponse();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable int id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Item> getItemById(@PathVariable int id, ServletWebRequest request) {
+        if (resourceVersions.checkNotModified(request, ETAG_SOURCES)) {
+            return null;
+        }
         return itemRepository.findById(id)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException("Item", id));
@@ -35,6 +74,8 @@ public class ItemController {
     @PostMapping
     public ResponseEntity<Item> createItem(@Valid @RequestBody Item item) {
         Item saved = itemRepository.save(item);
+        searchIndex.put(SearchDocument.of(saved));
+        resourceVersions.bump(ResourceVersions.ITEMS);
         log.info("Created item: {}", saved.getName());
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
@@ -55,8 +96,24 @@ public class ItemController {
         existingItem.setDamageRoll(itemDetails.getDamageRoll());
         existingItem.setArmorClass(itemDetails.getArmorClass());
 
+        Item saved = itemRepository.save(existingItem);
+
+        searchIndex.put(SearchDocument.of(saved));
+        resourceVersions.bump(ResourceVersions.ITEMS);
         log.debug("Updated item id={}", id);
-        return ResponseEntity.ok(itemRepository.save(existingItem));
+        return ResponseEntity.ok(saved);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MergePatchService.MERGE_PATCH_JSON)
+    public ResponseEntity<Void> patchItem(
+            @PathVariable int id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = mergePatchService.apply(Item.class, "Item", id, patch, PATCHABLE, ifMatch);
+        itemRepository.findById(id).ifPresent(item -> searchIndex.put(SearchDocument.of(item)));
+        resourceVersions.bump(ResourceVersions.ITEMS);
+        log.debug("Patched item id={}", id);
+        return MergePatchService.patched(version);
     }
 
     @DeleteMapping("/{id}")
@@ -65,6 +122,8 @@ public class ItemController {
             throw new ResourceNotFoundException("Item", id);
         }
         itemRepository.deleteById(id);
+        searchIndex.remove(SearchType.ITEMS, id);
+        resourceVersions.bump(ResourceVersions.ITEMS);
         log.info("Deleted item id={}", id);
         return ResponseEntity.noContent().build();
     }
@@ -3,10 +3,14 @@ package org.swi_project.controllers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.swi_project.caching.ResourceVersions;
 import org.swi_project.exception.ResourceNotFoundException;
 import org.swi_project.models.Item;
 import org.swi_project.repositories.ItemRepository;
+import org.swi_project.search.SearchDocument;
+import org.swi_project.search.SearchIndex;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.*;
 
@@ -22,6 +26,15 @@ class ItemControllerUnitTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @Mock
+    private ServletWebRequest request;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -35,7 +48,7 @@ class ItemControllerUnitTest {
 
         when(itemRepository.findById(1)).thenReturn(Optional.of(item));
 
-        ResponseEntity<Item> response = itemController.getItemById(1);
+        ResponseEntity<Item> response = itemController.getItemById(1, request);
 
         assertThat(response.getStatusCodeValue()).isEqualTo(200);
         assertThat(response.getBody()).isEqualTo(item);
@@ -46,14 +59,23 @@ class ItemControllerUnitTest {
     void testGetItemByIdNotFound() {
         when(itemRepository.findById(1)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> itemController.getItemById(1))
+        assertThatThrownBy(() -> itemController.getItemById(1, request))
                 .isInstanceOf(ResourceNotFoundException.class);
         verify(itemRepository).findById(1);
     }
 
+    @Test
+    void testGetItemByIdNotModified() {
+        when(resourceVersions.checkNotModified(request, ResourceVersions.ITEMS)).thenReturn(true);
+
+        assertThat(itemController.getItemById(1, request)).isNull();
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void testCreateItem() {
         Item item = new Item();
+        item.setId(2);
         item.setName("Shield");
 
         when(itemRepository.save(item)).thenReturn(item);
@@ -63,6 +85,8 @@ class ItemControllerUnitTest {
         assertThat(response.getStatusCodeValue()).isEqualTo(201);
         assertThat(response.getBody()).isEqualTo(item);
         verify(itemRepository).save(item);
+        verify(resourceVersions).bump(ResourceVersions.ITEMS);
+        verify(searchIndex).put(SearchDocument.of(item));
     }
 
     @Test
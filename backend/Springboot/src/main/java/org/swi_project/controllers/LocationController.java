@@ -1,23 +1,36 @@
 package org.swi_project.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.swi_project.exception.BadRequestException;
 import org.swi_project.exception.ResourceNotFoundException;
 import org.swi_project.models.Location;
 import org.swi_project.models.Monster;
 import org.swi_project.models.MonsterInLocation;
 import org.swi_project.models.NPC;
+import org.swi_project.pagination.JsonGraph;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.pagination.ListView;
+import org.swi_project.patch.MergePatchService;
 import org.swi_project.repositories.LocationRepository;
 import org.swi_project.repositories.MonsterRepository;
 import org.swi_project.repositories.NPCRepository;
+import org.swi_project.search.SearchIndex;
+import org.swi_project.search.SearchType;
 
-import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/locations")
@@ -25,18 +38,39 @@ import java.util.Optional;
 @Slf4j
 public class LocationController {
 
+    private static final Set<String> SORTABLE = Set.of("id", "name");
+    private static final Set<String> UPDATABLE = Set.of("name", "description", "npcs", "monstersInLocation");
+    private static final Set<String> REQUIRED = Set.of("name", "description");
+
     private final LocationRepository locationRepository;
     private final MonsterRepository monsterRepository;
     private final NPCRepository npcRepository;
+    private final KeysetPager keysetPager;
+    private final SearchIndex searchIndex;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Lists locations as LocationSummary rows; {@code view=full} returns the full entities.
+     */
     @GetMapping
-    public List<Location> getAllLocations() {
-        return locationRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<? extends List<?>> getAllLocations(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String view) {
+        if (ListView.from(view) == ListView.FULL) {
+            return JsonGraph.initialize(keysetPager.page(locationRepository, SORTABLE, sort, after, limit))
+                    .toResponse();
+        }
+        return keysetPager.page(Location.class, LocationRepository.SUMMARY, SORTABLE, sort, after, limit).toResponse();
     }
 
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Location> getLocationById(@PathVariable int id) {
-        return locationRepository.findById(id)
+        return locationRepository.findDetailById(id)
+                .map(JsonGraph::initialize)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException("Location", id));
     }
@@ -51,61 +85,148 @@ public class LocationController {
     @PutMapping("/{id}")
     @Transactional
     public ResponseEntity<Location> updateLocation(@PathVariable int id, @RequestBody Location updatedLocation) {
-        Location existing = locationRepository.findById(id)
+        return ResponseEntity.ok(applyUpdate(id, updatedLocation, UPDATABLE));
+    }
+
+    /**
+     * JSON Merge Patch (RFC 7396): only the members present in the body are changed. As
+     * arrays, {@code npcs} and {@code monstersInLocation} replace the existing lists, and
+     * {@code null} empties them; name and description cannot be removed.
+     */
+    @PatchMapping(value = "/{id}", consumes = MergePatchService.MERGE_PATCH_JSON)
+    @Transactional
+    public ResponseEntity<Location> patchLocation(@PathVariable int id, @RequestBody JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("Merge patch must be a JSON object");
+        }
+        Set<String> present = new HashSet<>();
+        patch.fieldNames().forEachRemaining(present::add);
+        for (String field : present) {
+            if (!UPDATABLE.contains(field)) {
+                throw new BadRequestException("Field cannot be patched: " + field);
+            }
+            if (REQUIRED.contains(field) && patch.get(field).isNull()) {
+                throw new BadRequestException(field + " cannot be null");
+            }
+        }
+
+        Location changes;
+        try {
+            changes = objectMapper.convertValue(patch, Location.class);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid location patch");
+        }
+        return ResponseEntity.ok(applyUpdate(id, changes, present));
+    }
+
+    private Location applyUpdate(int id, Location update, Set<String> fields) {
+        Location existing = locationRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Location", id));
 
-        existing.setName(updatedLocation.getName());
-        existing.setDescription(updatedLocation.getDescription());
+        if (fields.contains("name")) {
+            existing.setName(update.getName());
+        }
+        if (fields.contains("description")) {
+            existing.setDescription(update.getDescription());
+        }
+        if (fields.contains("npcs")) {
+            syncNpcs(existing, update.getNpcs());
+        }
+        if (fields.contains("monstersInLocation")) {
+            syncMonsters(existing, update.getMonstersInLocation());
+        }
+
+        log.info("Updated location id={}", id);
+        return JsonGraph.initialize(existing);
+    }
 
-        List<NPC> attachedNpcs = new ArrayList<>();
-        if (updatedLocation.getNpcs() != null && !updatedLocation.getNpcs().isEmpty()) {
-            for (NPC npc : updatedLocation.getNpcs()) {
+    /**
+     * Detaches NPCs missing from {@code requested} (they keep existing without a location)
+     * and attaches the new ones, resolving all of them with a single query. NPCs already in
+     * the location are left untouched; an unknown NPC id fails the request with 404.
+     */
+    private void syncNpcs(Location location, List<NPC> requested) {
+        Set<Integer> requestedIds = new LinkedHashSet<>();
+        if (requested != null) {
+            for (NPC npc : requested) {
                 if (npc.getId() != null) {
-                    Optional<NPC> found = npcRepository.findById(npc.getId());
-                    found.ifPresent(attachedNpcs::add);
+                    requestedIds.add(npc.getId());
                 }
             }
         }
 
-        for (NPC npc : existing.getNpcs()) {
-            npc.setLocation(null);
+        Iterator<NPC> current = location.getNpcs().iterator();
+        while (current.hasNext()) {
+            NPC npc = current.next();
+            if (!requestedIds.remove(npc.getId())) {
+                npc.setLocation(null);
+                current.remove();
+            }
         }
-        existing.getNpcs().clear();
 
-        for (NPC npc : attachedNpcs) {
-            npc.setLocation(existing);
+        if (!requestedIds.isEmpty()) {
+            for (NPC npc : npcRepository.findAllById(requestedIds)) {
+                requestedIds.remove(npc.getId());
+                npc.setLocation(location);
+                location.getNpcs().add(npc);
+            }
+            if (!requestedIds.isEmpty()) {
+                throw new ResourceNotFoundException("NPC", requestedIds.iterator().next());
+            }
         }
-        existing.getNpcs().addAll(attachedNpcs);
-
-        existing.getMonstersInLocation().clear();
-        List<MonsterInLocation> newLinks = new ArrayList<>();
-        if (updatedLocation.getMonstersInLocation() != null) {
-            for (MonsterInLocation mil : updatedLocation.getMonstersInLocation()) {
-                if (mil.getMonster() != null && mil.getMonster().getId() != null) {
-                    Optional<Monster> optMonster = monsterRepository.findById(mil.getMonster().getId());
-                    if (optMonster.isPresent()) {
-                        MonsterInLocation link = new MonsterInLocation();
-                        link.setLocation(existing);
-                        link.setMonster(optMonster.get());
-                        link.setQuantity(mil.getQuantity());
-                        newLinks.add(link);
-                    }
+    }
+
+    /**
+     * Diffs the requested monster stacks against the existing links by monster id: missing
+     * links are removed, changed quantities updated and new monsters linked, so unchanged
+     * stacks produce no SQL. An unknown monster id fails the request with 404.
+     */
+    private void syncMonsters(Location location, List<MonsterInLocation> requested) {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        if (requested != null) {
+            for (MonsterInLocation link : requested) {
+                if (link.getMonster() != null && link.getMonster().getId() != null) {
+                    quantities.merge(link.getMonster().getId(), link.getQuantity(), Integer::sum);
                 }
             }
         }
-        existing.getMonstersInLocation().addAll(newLinks);
 
-        Location saved = locationRepository.save(existing);
-        log.info("Updated location id={}", id);
-        return ResponseEntity.ok(saved);
+        Iterator<MonsterInLocation> current = location.getMonstersInLocation().iterator();
+        while (current.hasNext()) {
+            MonsterInLocation link = current.next();
+            Integer quantity = quantities.remove(link.getMonster().getId());
+            if (quantity == null) {
+                current.remove();
+            } else if (link.getQuantity() != quantity) {
+                link.setQuantity(quantity);
+            }
+        }
+
+        if (!quantities.isEmpty()) {
+            for (Monster monster : monsterRepository.findAllById(quantities.keySet())) {
+                MonsterInLocation link = new MonsterInLocation();
+                link.setLocation(location);
+                link.setMonster(monster);
+                link.setQuantity(quantities.remove(monster.getId()));
+                location.getMonstersInLocation().add(link);
+            }
+            if (!quantities.isEmpty()) {
+                throw new ResourceNotFoundException("Monster", quantities.keySet().iterator().next());
+            }
+        }
     }
 
+    /**
+     * Deletes the location together with its NPCs and drops those NPCs from the search index.
+     */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteLocation(@PathVariable int id) {
         if (!locationRepository.existsById(id)) {
             throw new ResourceNotFoundException("Location", id);
         }
+        List<Integer> npcIds = npcRepository.findIdsByLocationId(id);
         locationRepository.deleteById(id);
+        npcIds.forEach(npcId -> searchIndex.remove(SearchType.NPCS, npcId));
         log.info("Deleted location id={}", id);
         return ResponseEntity.noContent().build();
     }
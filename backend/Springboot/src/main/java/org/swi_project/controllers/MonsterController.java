@@ -1,16 +1,32 @@
 package org.swi_project.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.swi_project.caching.ResourceVersions;
 import org.swi_project.exception.ResourceNotFoundException;
 import org.swi_project.models.Monster;
+import org.swi_project.pagination.FilterQuery;
+import org.swi_project.pagination.JsonGraph;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.pagination.ListView;
+import org.swi_project.patch.MergePatchService;
 import org.swi_project.repositories.MonsterRepository;
+import org.swi_project.search.SearchDocument;
+import org.swi_project.search.SearchIndex;
+import org.swi_project.search.SearchType;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/monsters")
@@ -18,16 +34,53 @@ import java.util.List;
 @Slf4j
 public class MonsterController {
 
+    private static final Set<String> SORTABLE = Set.of("id", "name", "type", "health", "attack", "defense");
+    private static final Set<String> FILTERABLE = Set.of(
+            "id", "name", "type", "health", "attack", "defense", "boss");
+    private static final Set<String> PATCHABLE = Set.of(
+            "name", "description", "health", "attack", "defense", "boss", "abilities", "type");
+    // Monsters embed their owners and loot.
+    private static final String[] ETAG_SOURCES = {ResourceVersions.MONSTERS, ResourceVersions.CHARACTERS,
+            ResourceVersions.ITEMS};
+
     private final MonsterRepository monsterRepository;
+    private final KeysetPager keysetPager;
+    private final ResourceVersions resourceVersions;
+    private final SearchIndex searchIndex;
+    private final MergePatchService mergePatchService;
 
+    /**
+     * Lists monsters as MonsterSummary rows; {@code view=full} returns the full entities.
+     */
     @GetMapping
-    public List<Monster> getAllMonsters() {
-        return monsterRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<? extends List<?>> getAllMonsters(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String view,
+            @RequestParam MultiValueMap<String, String> parameters,
+            ServletWebRequest request) {
+        if (resourceVersions.checkNotModified(request, ETAG_SOURCES)) {
+            return null;
+        }
+        Specification<Monster> filter = FilterQuery.parse(parameters, FILTERABLE);
+        if (ListView.from(view) == ListView.FULL) {
+            return JsonGraph.initialize(keysetPager.page(monsterRepository, filter, SORTABLE, sort, after, limit))
+                    .toResponse();
+        }
+        return keysetPager.page(Monster.class, MonsterRepository.SUMMARY, filter, SORTABLE, sort, after, limit)
+                .toResponse();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Monster> getMonster(@PathVariable Integer id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Monster> getMonster(@PathVariable Integer id, ServletWebRequest request) {
+        if (resourceVersions.checkNotModified(request, ETAG_SOURCES)) {
+            return null;
+        }
         return monsterRepository.findById(id)
+                .map(JsonGraph::initialize)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException("Monster", id));
     }
@@ -35,11 +88,14 @@ public class MonsterController {
     @PostMapping
     public ResponseEntity<Monster> createMonster(@Valid @RequestBody Monster monster) {
         Monster saved = monsterRepository.save(monster);
+        searchIndex.put(SearchDocument.of(saved));
+        resourceVersions.bump(ResourceVersions.MONSTERS);
         log.info("Created monster: {}", saved.getName());
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Monster> updateMonster(@PathVariable Integer id, @Valid @RequestBody Monster updated) {
         Monster monster = monsterRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Monster", id));
@@ -53,8 +109,24 @@ public class MonsterController {
         monster.setAbilities(updated.getAbilities());
         monster.setType(updated.getType());
 
+        Monster saved = monsterRepository.save(monster);
+
+        searchIndex.put(SearchDocument.of(saved));
+        resourceVersions.bump(ResourceVersions.MONSTERS);
         log.debug("Updated monster id={}", id);
-        return ResponseEntity.ok(monsterRepository.save(monster));
+        return ResponseEntity.ok(JsonGraph.initialize(saved));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MergePatchService.MERGE_PATCH_JSON)
+    public ResponseEntity<Void> patchMonster(
+            @PathVariable Integer id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = mergePatchService.apply(Monster.class, "Monster", id, patch, PATCHABLE, ifMatch);
+        monsterRepository.findById(id).ifPresent(monster -> searchIndex.put(SearchDocument.of(monster)));
+        resourceVersions.bump(ResourceVersions.MONSTERS);
+        log.debug("Patched monster id={}", id);
+        return MergePatchService.patched(version);
     }
 
     @DeleteMapping("/{id}")
@@ -63,6 +135,8 @@ public class MonsterController {
             throw new ResourceNotFoundException("Monster", id);
         }
         monsterRepository.deleteById(id);
+        searchIndex.remove(SearchType.MONSTERS, id);
+        resourceVersions.bump(ResourceVersions.MONSTERS);
         log.info("Deleted monster id={}", id);
         return ResponseEntity.noContent().build();
     }
@@ -1,16 +1,28 @@
 package org.swi_project.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import org.swi_project.exception.ResourceNotFoundException;
 import org.swi_project.models.NPC;
+import org.swi_project.pagination.FilterQuery;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.patch.MergePatchService;
 import org.swi_project.repositories.NPCRepository;
+import org.swi_project.search.SearchDocument;
+import org.swi_project.search.SearchIndex;
+import org.swi_project.search.SearchType;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/npcs")
@@ -18,14 +30,28 @@ import java.util.List;
 @Slf4j
 public class NPCController {
 
+    private static final Set<String> SORTABLE = Set.of("id", "name", "role");
+    private static final Set<String> FILTERABLE = Set.of("id", "name", "role", "hostility", "location.id");
+    private static final Set<String> PATCHABLE = Set.of("name", "role", "description", "hostility");
+
     private final NPCRepository npcRepository;
+    private final KeysetPager keysetPager;
+    private final SearchIndex searchIndex;
+    private final MergePatchService mergePatchService;
 
     @GetMapping
-    public List<NPC> getAllNPCs() {
-        return npcRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<NPC>> getAllNPCs(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam MultiValueMap<String, String> parameters) {
+        Specification<NPC> filter = FilterQuery.parse(parameters, FILTERABLE);
+        return keysetPager.page(npcRepository, filter, SORTABLE, sort, after, limit).toResponse();
     }
 
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<NPC> getNPCById(@PathVariable int id) {
         return npcRepository.findById(id)
                 .map(ResponseEntity::ok)
@@ -35,6 +61,7 @@ public class NPCController {
     @PostMapping
     public ResponseEntity<NPC> createNPC(@Valid @RequestBody NPC npc) {
         NPC saved = npcRepository.save(npc);
+        searchIndex.put(SearchDocument.of(saved));
         log.info("Created NPC: {}", saved.getName());
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
@@ -50,7 +77,20 @@ public class NPCController {
         npc.setHostility(updatedNpc.isHostility());
 
         log.debug("Updated NPC id={}", id);
-        return ResponseEntity.ok(npcRepository.save(npc));
+        NPC saved = npcRepository.save(npc);
+        searchIndex.put(SearchDocument.of(saved));
+        return ResponseEntity.ok(saved);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MergePatchService.MERGE_PATCH_JSON)
+    public ResponseEntity<Void> patchNpc(
+            @PathVariable int id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = mergePatchService.apply(NPC.class, "NPC", id, patch, PATCHABLE, ifMatch);
+        npcRepository.findById(id).ifPresent(npc -> searchIndex.put(SearchDocument.of(npc)));
+        log.debug("Patched NPC id={}", id);
+        return MergePatchService.patched(version);
     }
 
     @DeleteMapping("/{id}")
@@ -59,6 +99,7 @@ public class NPCController {
             throw new ResourceNotFoundException("NPC", id);
         }
         npcRepository.deleteById(id);
+        searchIndex.remove(SearchType.NPCS, id);
         log.info("Deleted NPC id={}", id);
         return ResponseEntity.noContent().build();
     }
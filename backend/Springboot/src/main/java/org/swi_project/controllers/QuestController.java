@@ -1,18 +1,31 @@
 package org.swi_project.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.changes.ChangeFeed;
 import org.swi_project.exception.ResourceNotFoundException;
 import org.swi_project.models.Character;
 import org.swi_project.models.Quest;
+import org.swi_project.pagination.FilterQuery;
+import org.swi_project.pagination.JsonGraph;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.pagination.ListView;
+import org.swi_project.patch.MergePatchService;
 import org.swi_project.repositories.CharacterRepository;
 import org.swi_project.repositories.QuestRepository;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/quests")
@@ -20,17 +33,43 @@ import java.util.List;
 @Slf4j
 public class QuestController {
 
+    private static final Set<String> SORTABLE = Set.of("id", "title", "type", "completion");
+    private static final Set<String> FILTERABLE = Set.of("id", "title", "type", "completion");
+    private static final Set<String> PATCHABLE = Set.of("title", "description", "type", "completion");
+    private static final String[] SUMMARY_FIELDS = {"title", "type", "completion"};
+
     private final QuestRepository questRepository;
     private final CharacterRepository characterRepository;
-
+    private final KeysetPager keysetPager;
+    private final ResourceVersions resourceVersions;
+    private final MergePatchService mergePatchService;
+    private final ChangeFeed changeFeed;
+
+    /**
+     * Lists quests as QuestSummary rows; {@code view=full} returns the full entities.
+     */
     @GetMapping
-    public List<Quest> getAllQuests() {
-        return questRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<? extends List<?>> getAllQuests(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String view,
+            @RequestParam MultiValueMap<String, String> parameters) {
+        Specification<Quest> filter = FilterQuery.parse(parameters, FILTERABLE);
+        if (ListView.from(view) == ListView.FULL) {
+            return JsonGraph.initialize(keysetPager.page(questRepository, filter, SORTABLE, sort, after, limit))
+                    .toResponse();
+        }
+        return keysetPager.page(Quest.class, QuestRepository.SUMMARY, filter, SORTABLE, sort, after, limit)
+                .toResponse();
     }
 
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Quest> getQuestById(@PathVariable int id) {
         return questRepository.findById(id)
+                .map(JsonGraph::initialize)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException("Quest", id));
     }
@@ -38,11 +77,14 @@ public class QuestController {
     @PostMapping
     public ResponseEntity<Quest> createQuest(@Valid @RequestBody Quest quest) {
         Quest saved = questRepository.save(quest);
+        resourceVersions.bump(ResourceVersions.QUESTS);
+        changeFeed.created(ResourceVersions.QUESTS, saved, SUMMARY_FIELDS);
         log.info("Created quest: {}", saved.getTitle());
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Quest> updateQuest(@PathVariable int id, @Valid @RequestBody Quest questDetails) {
         Quest existingQuest = questRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Quest", id));
@@ -52,8 +94,23 @@ public class QuestController {
         existingQuest.setType(questDetails.getType());
         existingQuest.setCompletion(questDetails.isCompletion());
 
+        Quest saved = questRepository.save(existingQuest);
+        resourceVersions.bump(ResourceVersions.QUESTS);
+        changeFeed.changed(ResourceVersions.QUESTS, saved, SUMMARY_FIELDS);
         log.debug("Updated quest id={}", id);
-        return ResponseEntity.ok(questRepository.save(existingQuest));
+        return ResponseEntity.ok(JsonGraph.initialize(saved));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MergePatchService.MERGE_PATCH_JSON)
+    public ResponseEntity<Void> patchQuest(
+            @PathVariable int id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = mergePatchService.apply(Quest.class, "Quest", id, patch, PATCHABLE, ifMatch);
+        resourceVersions.bump(ResourceVersions.QUESTS);
+        changeFeed.patched(ResourceVersions.QUESTS, id, patch, version);
+        log.debug("Patched quest id={}", id);
+        return MergePatchService.patched(version);
     }
 
     @DeleteMapping("/{id}")
@@ -62,18 +119,22 @@ public class QuestController {
             throw new ResourceNotFoundException("Quest", id);
         }
         questRepository.deleteById(id);
+        resourceVersions.bump(ResourceVersions.QUESTS);
+        changeFeed.deleted(ResourceVersions.QUESTS, id);
         log.info("Deleted quest id={}", id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{questId}/participants")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Character>> getQuestParticipants(@PathVariable int questId) {
         Quest quest = questRepository.findById(questId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quest", questId));
-        return ResponseEntity.ok(quest.getParticipants());
+        return ResponseEntity.ok(JsonGraph.initialize(quest.getParticipants()));
     }
 
     @PostMapping("/{questId}/participants/{characterId}")
+    @Transactional
     public ResponseEntity<Quest> addParticipantToQuest(
             @PathVariable int questId,
             @PathVariable int characterId) {
@@ -82,15 +143,20 @@ public class QuestController {
         Character character = characterRepository.findById(characterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Character", characterId));
 
-        if (!quest.getParticipants().contains(character)) {
+        // Character owns the charquest link; participants is only its inverse side.
+        if (character.getQuests().add(quest)) {
             quest.getParticipants().add(character);
+            characterRepository.save(character);
+            resourceVersions.bump(ResourceVersions.QUESTS, ResourceVersions.CHARACTERS);
+            changeFeed.changed(ResourceVersions.QUESTS, quest, "participants");
+            changeFeed.changed(ResourceVersions.CHARACTERS, character, "quests");
             log.info("Added character {} to quest {}", character.getName(), quest.getTitle());
-            return ResponseEntity.ok(questRepository.save(quest));
         }
-        return ResponseEntity.ok(quest);
+        return ResponseEntity.ok(JsonGraph.initialize(quest));
     }
 
     @DeleteMapping("/{questId}/participants/{characterId}")
+    @Transactional
     public ResponseEntity<Quest> removeParticipantFromQuest(
             @PathVariable int questId,
             @PathVariable int characterId) {
@@ -99,19 +165,27 @@ public class QuestController {
         Character character = characterRepository.findById(characterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Character", characterId));
 
-        if (quest.getParticipants().remove(character)) {
+        if (character.getQuests().remove(quest)) {
+            quest.getParticipants().remove(character);
+            characterRepository.save(character);
+            resourceVersions.bump(ResourceVersions.QUESTS, ResourceVersions.CHARACTERS);
+            changeFeed.changed(ResourceVersions.QUESTS, quest, "participants");
+            changeFeed.changed(ResourceVersions.CHARACTERS, character, "quests");
             log.info("Removed character {} from quest {}", character.getName(), quest.getTitle());
-            return ResponseEntity.ok(questRepository.save(quest));
         }
-        return ResponseEntity.ok(quest);
+        return ResponseEntity.ok(JsonGraph.initialize(quest));
     }
 
     @PutMapping("/{questId}/complete")
+    @Transactional
     public ResponseEntity<Quest> completeQuest(@PathVariable int questId) {
         Quest quest = questRepository.findById(questId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quest", questId));
         quest.setCompletion(true);
+        Quest saved = questRepository.save(quest);
+        resourceVersions.bump(ResourceVersions.QUESTS);
+        changeFeed.changed(ResourceVersions.QUESTS, saved, "completion");
         log.info("Completed quest: {}", quest.getTitle());
-        return ResponseEntity.ok(questRepository.save(quest));
+        return ResponseEntity.ok(JsonGraph.initialize(saved));
     }
 }
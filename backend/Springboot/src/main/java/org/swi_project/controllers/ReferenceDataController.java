@@ -0,0 +1,43 @@
+package org.swi_project.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.swi_project.models.CharacterClass;
+import org.swi_project.models.Race;
+import org.swi_project.reference.ReferenceDataRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class ReferenceDataController {
+
+    private final ReferenceDataRegistry referenceDataRegistry;
+
+    @Value("${reference-data.max-age-seconds:86400}")
+    private long maxAgeSeconds;
+
+    @GetMapping("/races")
+    public ResponseEntity<Collection<Race>> getRaces() {
+        return cached(referenceDataRegistry.races());
+    }
+
+    @GetMapping("/character-classes")
+    public ResponseEntity<Collection<CharacterClass>> getCharacterClasses() {
+        return cached(referenceDataRegistry.characterClasses());
+    }
+
+    // Responses are per user (the API requires a token), so shared caches must not store them.
+    private <T> ResponseEntity<T> cached(T body) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePrivate())
+                .body(body);
+    }
+}
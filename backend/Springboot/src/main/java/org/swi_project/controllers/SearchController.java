@@ -0,0 +1,46 @@
+package org.swi_project.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.swi_project.search.SearchHit;
+import org.swi_project.search.SearchIndex;
+import org.swi_project.search.SearchType;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchIndex searchIndex;
+
+    @Value("${search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${search.max-limit:100}")
+    private int maxLimit;
+
+    /**
+     * Ranked search over item, spell, monster and NPC names and descriptions, optionally
+     * restricted to a comma-separated list of {@code types}.
+     */
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String types,
+            @RequestParam(required = false) Integer limit) {
+        Set<SearchType> filter = types == null || types.isBlank()
+                ? EnumSet.noneOf(SearchType.class)
+                : Arrays.stream(types.split(",")).map(SearchType::from)
+                        .collect(Collectors.toCollection(() -> EnumSet.noneOf(SearchType.class)));
+        int size = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        return ResponseEntity.ok(searchIndex.search(q, filter, size));
+    }
+}
@@ -1,16 +1,31 @@
 package org.swi_project.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.swi_project.caching.ResourceVersions;
 import org.swi_project.exception.ResourceNotFoundException;
 import org.swi_project.models.Spell;
+import org.swi_project.pagination.FilterQuery;
+import org.swi_project.pagination.JsonGraph;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.patch.MergePatchService;
 import org.swi_project.repositories.SpellRepository;
+import org.swi_project.search.SearchDocument;
+import org.swi_project.search.SearchIndex;
+import org.swi_project.search.SearchType;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/spells")
@@ -18,16 +33,43 @@ import java.util.List;
 @Slf4j
 public class SpellController {
 
+    private static final Set<String> SORTABLE = Set.of("id", "name", "type", "level");
+    private static final Set<String> FILTERABLE = Set.of("id", "name", "type", "level");
+    private static final Set<String> PATCHABLE = Set.of("name", "description", "type", "level");
+    // Spells embed their characters, which embed items, quests and monsters.
+    private static final String[] ETAG_SOURCES = {ResourceVersions.SPELLS, ResourceVersions.CHARACTERS,
+            ResourceVersions.ITEMS, ResourceVersions.QUESTS, ResourceVersions.MONSTERS};
+
     private final SpellRepository spellRepository;
+    private final KeysetPager keysetPager;
+    private final ResourceVersions resourceVersions;
+    private final SearchIndex searchIndex;
+    private final MergePatchService mergePatchService;
 
     @GetMapping
-    public List<Spell> getAllSpells() {
-        return spellRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Spell>> getAllSpells(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam MultiValueMap<String, String> parameters,
+            ServletWebRequest request) {
+        if (resourceVersions.checkNotModified(request, ETAG_SOURCES)) {
+            return null;
+        }
+        Specification<Spell> filter = FilterQuery.parse(parameters, FILTERABLE);
+        return JsonGraph.initialize(keysetPager.page(spellRepository, filter, SORTABLE, sort, after, limit))
+                .toResponse();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Spell> getSpell(@PathVariable Integer id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Spell> getSpell(@PathVariable Integer id, ServletWebRequest request) {
+        if (resourceVersions.checkNotModified(request, ETAG_SOURCES)) {
+            return null;
+        }
         return spellRepository.findById(id)
+                .map(JsonGraph::initialize)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResourceNotFoundException("Spell", id));
     }
@@ -35,11 +77,14 @@ public class SpellController {
     @PostMapping
     public ResponseEntity<Spell> createSpell(@Valid @RequestBody Spell spell) {
         Spell saved = spellRepository.save(spell);
+        searchIndex.put(SearchDocument.of(saved));
+        resourceVersions.bump(ResourceVersions.SPELLS);
         log.info("Created spell: {}", saved.getName());
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Spell> updateSpell(@PathVariable Integer id, @Valid @RequestBody Spell updatedSpell) {
         Spell spell = spellRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Spell", id));
@@ -49,8 +94,24 @@ public class SpellController {
         spell.setType(updatedSpell.getType());
         spell.setLevel(updatedSpell.getLevel());
 
+        Spell saved = spellRepository.save(spell);
+
+        searchIndex.put(SearchDocument.of(saved));
+        resourceVersions.bump(ResourceVersions.SPELLS);
         log.debug("Updated spell id={}", id);
-        return ResponseEntity.ok(spellRepository.save(spell));
+        return ResponseEntity.ok(JsonGraph.initialize(saved));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = MergePatchService.MERGE_PATCH_JSON)
+    public ResponseEntity<Void> patchSpell(
+            @PathVariable Integer id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = mergePatchService.apply(Spell.class, "Spell", id, patch, PATCHABLE, ifMatch);
+        spellRepository.findById(id).ifPresent(spell -> searchIndex.put(SearchDocument.of(spell)));
+        resourceVersions.bump(ResourceVersions.SPELLS);
+        log.debug("Patched spell id={}", id);
+        return MergePatchService.patched(version);
     }
 
     @DeleteMapping("/{id}")
@@ -59,6 +120,8 @@ public class SpellController {
             throw new ResourceNotFoundException("Spell", id);
         }
         spellRepository.deleteById(id);
+        searchIndex.remove(SearchType.SPELLS, id);
+        resourceVersions.bump(ResourceVersions.SPELLS);
         log.info("Deleted spell id={}", id);
         return ResponseEntity.noContent().build();
     }
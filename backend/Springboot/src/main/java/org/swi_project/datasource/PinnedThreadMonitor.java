@@ -0,0 +1,82 @@
+package org.swi_project.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, e.g. while blocking inside a
+ * {@code synchronized} block of the JDBC driver or the pool, as the
+ * {@code jvm.threads.virtual.pinned} timer. Pins are tagged {@code source=jdbc} when the
+ * stack runs through JDBC code. Only active when virtual threads are enabled.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class PinnedThreadMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final List<String> JDBC_PACKAGES = List.of("java.sql.", "com.mysql.", "com.zaxxer.hikari.");
+
+    private final RecordingStream stream;
+    private final Timer jdbcPins;
+    private final Timer otherPins;
+
+    public PinnedThreadMonitor(MeterRegistry registry,
+                               @Value("${virtual-threads.pinned-threshold-ms:20}") long thresholdMillis) {
+        this.jdbcPins = pinTimer(registry, "jdbc");
+        this.otherPins = pinTimer(registry, "other");
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    void close() {
+        stream.close();
+    }
+
+    private void record(RecordedEvent event) {
+        boolean jdbc = isJdbc(event.getStackTrace());
+        (jdbc ? jdbcPins : otherPins).record(event.getDuration());
+        if (log.isDebugEnabled()) {
+            log.debug("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(),
+                    event.getStackTrace() != null ? " at " + event.getStackTrace().getFrames().get(0) : "");
+        }
+    }
+
+    private static boolean isJdbc(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return false;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            for (String jdbcPackage : JDBC_PACKAGES) {
+                if (type.startsWith(jdbcPackage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Timer pinTimer(MeterRegistry registry, String source) {
+        return Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .tag("source", source)
+                .register(registry);
+    }
+}
@@ -0,0 +1,75 @@
+package org.swi_project.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Keeps a client on the primary for a short window after its own writes. Mutating requests
+ * always use the primary and set a short-lived cookie holding the end of the window; while
+ * a request carries an unexpired cookie, its read-only transactions use the primary instead
+ * of the replica. The marker travels with the client, so it holds across instances.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "read-primary-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long windowSeconds;
+
+    public ReadYourWritesFilter(long windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean mutating = !SAFE_METHODS.contains(request.getMethod());
+        if (mutating) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(now + windowSeconds * 1000))
+                    .maxAge(windowSeconds)
+                    .path("/api")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+
+        ReadWriteRoutingDataSource.setPrimaryOnly(mutating || hasRecentWrite(request, now));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.setPrimaryOnly(false);
+        }
+    }
+
+    private static boolean hasRecentWrite(HttpServletRequest request, long now) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > now;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
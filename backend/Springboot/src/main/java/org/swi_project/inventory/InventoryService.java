@@ -0,0 +1,118 @@
+package org.swi_project.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.exception.ResourceNotFoundException;
+import org.swi_project.models.Character;
+import org.swi_project.models.Item;
+import org.swi_project.pagination.JsonGraph;
+import org.swi_project.repositories.CharacterRepository;
+import org.swi_project.repositories.ItemRepository;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns items to characters under the weapon and ring slot limits. Slots are counted
+ * with queries on the join table instead of loading the inventory, and every assignment
+ * increments the character's version, so of two concurrent assignments that passed the
+ * same check only one commits and the other is retried against the new counts. Two
+ * assignments of the same item may instead collide on the join table's primary key; the
+ * retry then finds the item owned and skips it.
+ */
+@Service
+@Slf4j
+public class InventoryService {
+
+    public static final int MAX_WEAPONS = 2;
+    public static final int MAX_RINGS = 4;
+
+    private final CharacterRepository characterRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public InventoryService(CharacterRepository characterRepository,
+                            ItemRepository itemRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${inventory.max-attempts:3}") int maxAttempts) {
+        this.characterRepository = characterRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Adds all items to the character in one transaction, or none of them if any item is
+     * missing or would exceed a slot limit. Items the character already owns are skipped.
+     * The returned character has its JSON graph loaded.
+     */
+    public Character assignItems(int characterId, Collection<Integer> itemIds) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(
+                        status -> JsonGraph.initialize(assign(characterId, new LinkedHashSet<>(itemIds))));
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up assigning items to character {} after {} conflicting attempts",
+                            characterId, attempt);
+                    throw e;
+                }
+                log.debug("Inventory of character {} changed concurrently, retrying", characterId);
+            }
+        }
+    }
+
+    private Character assign(int characterId, Set<Integer> itemIds) {
+        Character character = characterRepository.findForInventoryUpdate(characterId)
+                .orElseThrow(() -> new ResourceNotFoundException("Character", characterId));
+        if (itemIds.isEmpty()) {
+            return character;
+        }
+
+        Map<Integer, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        for (Integer itemId : itemIds) {
+            if (!items.containsKey(itemId)) {
+                throw new ResourceNotFoundException("Item", itemId);
+            }
+        }
+
+        Set<Integer> owned = characterRepository.findOwnedItemIds(characterId, itemIds);
+        long weapons = -1;
+        long rings = -1;
+        for (Integer itemId : itemIds) {
+            Item item = items.get(itemId);
+            if (owned.contains(itemId)) {
+                continue;
+            }
+            if (item.isWeapon()) {
+                if (weapons < 0) {
+                    weapons = characterRepository.countItemsOfType(characterId, "WEAPON");
+                }
+                if (++weapons > MAX_WEAPONS) {
+                    throw new BadRequestException("Character can't carry more than " + MAX_WEAPONS + " weapons.");
+                }
+            }
+            if (item.isRing()) {
+                if (rings < 0) {
+                    rings = characterRepository.countItemsOfType(characterId, "RING");
+                }
+                if (++rings > MAX_RINGS) {
+                    throw new BadRequestException("Character can't wear more than " + MAX_RINGS + " rings.");
+                }
+            }
+            characterRepository.insertItem(characterId, itemId);
+        }
+        return character;
+    }
+}
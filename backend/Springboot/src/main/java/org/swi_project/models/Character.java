@@ -1,19 +1,33 @@
 package org.swi_project.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.OptimisticLock;
+import org.swi_project.reference.ReferenceDataSerializer;
 
 import jakarta.persistence.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "game_character")
+@NamedEntityGraph(name = Character.JSON,
+        attributeNodes = {
+                @NamedAttributeNode("spells"),
+                @NamedAttributeNode("items"),
+                @NamedAttributeNode("quests"),
+                @NamedAttributeNode(value = "ownedMonsters", subgraph = "monster")},
+        subgraphs = @NamedSubgraph(name = "monster", attributeNodes = @NamedAttributeNode("loot")))
 public class Character {
+    public static final String JSON = "Character.json";
+    public static final String STATUS_ALIVE = "Živý";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "Id")
@@ -25,13 +39,15 @@ public class Character {
     private String name;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CharacterClass_Name", nullable = false)
+    @JsonSerialize(using = ReferenceDataSerializer.class)
     private CharacterClass characterClass;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "Race_Name", nullable = false)
+    @JsonSerialize(using = ReferenceDataSerializer.class)
     private Race race;
 
     @Min(1)
@@ -98,40 +114,53 @@ public class Character {
     @Column(name = "Notes", nullable = false, length = 2000)
     private String notes;
 
+    // Collections are excluded from automatic versioning to keep link writes to a single
+    // row; item assignments force the increment so concurrent slot checks conflict.
+    @Version
+    @Column(name = "Version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    // Owning sides are sets: Hibernate keys the join tables by both columns and writes
+    // single-row inserts and deletes instead of rewriting the whole collection.
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "charspells",
             joinColumns = @JoinColumn(name = "Character_Id"),
             inverseJoinColumns = @JoinColumn(name = "Spell_Id")
     )
     @JsonIgnoreProperties("characters")
-    private List<Spell> spells = new ArrayList<>();
+    private Set<Spell> spells = new LinkedHashSet<>();
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "charitems",
             joinColumns = @JoinColumn(name = "Character_Id"),
             inverseJoinColumns = @JoinColumn(name = "Item_Id")
     )
-    private List<Item> items = new ArrayList<>();
+    private Set<Item> items = new LinkedHashSet<>();
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "charquest",
             joinColumns = @JoinColumn(name = "Character_Id"),
             inverseJoinColumns = @JoinColumn(name = "Quest_Id")
     )
     @JsonIgnoreProperties({"participants"})
-    private List<Quest> quests = new ArrayList<>();
+    private Set<Quest> quests = new LinkedHashSet<>();
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "ownedmonsterbychar",
             joinColumns = @JoinColumn(name = "Character_Id"),
             inverseJoinColumns = @JoinColumn(name = "Monster_Id")
     )
     @JsonIgnoreProperties({"owners", "locations"})
-    private List<Monster> ownedMonsters = new ArrayList<>();
+    private Set<Monster> ownedMonsters = new LinkedHashSet<>();
 
     public void addSpell(Spell spell) {
         this.spells.add(spell);
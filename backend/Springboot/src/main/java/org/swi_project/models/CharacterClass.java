@@ -1,13 +1,16 @@
 package org.swi_project.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 
 @Entity
 @Table(name = "characterclass")
 @Getter
 @Setter
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class CharacterClass {
     @Id
     @Column(name = "Name", length = 25)
@@ -48,9 +51,10 @@ public class CharacterClass {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        // Either side may be a lazy proxy, so compare entity classes and go through the getter.
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
         CharacterClass that = (CharacterClass) o;
-        return name.equals(that.name);
+        return getName().equals(that.getName());
     }
 
     @Override
@@ -1,5 +1,6 @@
 package org.swi_project.models;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,7 +13,8 @@ import jakarta.persistence.*;
 @Table(name = "item")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", allocationSize = 50)
     @Column(name = "Id")
     private Integer id;
 
@@ -24,6 +26,7 @@ public class Item {
     @NotBlank
     @Size(max = 25)
     @Column(name = "Type", nullable = false, length = 25)
+    @Convert(converter = UpperCaseConverter.class)
     private String type;
 
     @Size(max = 200)
@@ -60,17 +63,25 @@ public class Item {
     @Column(name = "ArmorClass", nullable = false)
     private int armorClass;
 
+    @Version
+    @Column(name = "Version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     public boolean isWeapon() {
         return "WEAPON".equalsIgnoreCase(type);
     }
 
+    public boolean isRing() {
+        return "RING".equalsIgnoreCase(type);
+    }
+
     public boolean isArmor() {
         return "ARMOR".equalsIgnoreCase(type) || "SHIELD".equalsIgnoreCase(type);
     }
 
     public boolean isEquippable() {
-        return isWeapon() || isArmor() ||
-                "RING".equalsIgnoreCase(type) ||
+        return isWeapon() || isArmor() || isRing() ||
                 "AMULET".equalsIgnoreCase(type) ||
                 "CLOTHING".equalsIgnoreCase(type);
     }
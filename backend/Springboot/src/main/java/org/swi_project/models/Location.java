@@ -13,7 +13,21 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name = "location")
+@NamedEntityGraph(name = Location.WITH_MONSTERS,
+        attributeNodes = @NamedAttributeNode(value = "monstersInLocation", subgraph = "monster"),
+        subgraphs = @NamedSubgraph(name = "monster", attributeNodes = @NamedAttributeNode("monster")))
+@NamedEntityGraph(name = Location.JSON,
+        attributeNodes = {
+                @NamedAttributeNode(value = "monstersInLocation", subgraph = "stack"),
+                @NamedAttributeNode("npcs")},
+        subgraphs = {
+                @NamedSubgraph(name = "stack", attributeNodes = @NamedAttributeNode(value = "monster", subgraph = "monster")),
+                @NamedSubgraph(name = "monster", attributeNodes = {
+                        @NamedAttributeNode("owners"),
+                        @NamedAttributeNode("loot")})})
 public class Location {
+    public static final String WITH_MONSTERS = "Location.withMonsters";
+    public static final String JSON = "Location.json";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,7 +44,7 @@ public class Location {
     @JsonIgnoreProperties("location")
     private List<MonsterInLocation> monstersInLocation = new ArrayList<>();
 
-    @OneToMany(mappedBy = "location", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "location", cascade = CascadeType.ALL)
     @JsonManagedReference
     private List<NPC> npcs = new ArrayList<>();
 }
\ No newline at end of file
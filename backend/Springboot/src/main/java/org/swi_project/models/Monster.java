@@ -1,22 +1,30 @@
 package org.swi_project.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.persistence.*;
+import org.hibernate.annotations.OptimisticLock;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "monster")
+@NamedEntityGraph(name = Monster.JSON,
+        attributeNodes = {@NamedAttributeNode("owners"), @NamedAttributeNode("loot")})
 public class Monster {
+    public static final String JSON = "Monster.json";
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "monster_seq")
+    @SequenceGenerator(name = "monster_seq", allocationSize = 50)
     @Column(name = "Id")
     private Integer id;
 
@@ -53,18 +61,24 @@ public class Monster {
     @Column(name = "Type", nullable = false, length = 25)
     private String type;
 
+    @Version
+    @Column(name = "Version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     @ManyToMany(mappedBy = "ownedMonsters")
     @JsonIgnoreProperties({"ownedMonsters", "items", "quests", "spells"})
     private List<Character> owners = new ArrayList<>();
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "lootdropped",
             joinColumns = @JoinColumn(name = "Monster_Id"),
             inverseJoinColumns = @JoinColumn(name = "Item_Id")
     )
     @JsonIgnoreProperties({"owner", "monsters"})
-    private List<Item> loot = new ArrayList<>();
+    private Set<Item> loot = new LinkedHashSet<>();
 
     @JsonIgnore
     @OneToMany(mappedBy = "monster")
@@ -2,6 +2,7 @@ package org.swi_project.models;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -17,7 +18,8 @@ import java.util.List;
 public class NPC {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "npc_seq")
+    @SequenceGenerator(name = "npc_seq", allocationSize = 50)
     private Integer id;
 
     @Column(nullable = false, length = 25)
@@ -32,7 +34,12 @@ public class NPC {
     @Column(nullable = false)
     private boolean hostility;
 
-    @ManyToOne
+    @Version
+    @Column(name = "Version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "location_id")
     @JsonBackReference
     private Location location;
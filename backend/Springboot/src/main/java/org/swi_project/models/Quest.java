@@ -1,6 +1,7 @@
 package org.swi_project.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,7 +13,9 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name = "quest")
+@NamedEntityGraph(name = Quest.JSON, attributeNodes = @NamedAttributeNode("participants"))
 public class Quest {
+    public static final String JSON = "Quest.json";
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "Id")
@@ -30,6 +33,11 @@ public class Quest {
     @Column(name = "Completion", nullable = false)
     private boolean completion;
 
+    @Version
+    @Column(name = "Version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     @ManyToMany(mappedBy = "quests")
     @JsonIgnoreProperties({"quests", "items", "ownedMonsters", "spells"})
     private List<Character> participants = new ArrayList<>();
@@ -1,13 +1,16 @@
 package org.swi_project.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.persistence.*;
+import org.hibernate.Hibernate;
 
 @Entity
 @Table(name = "race")
 @Getter
 @Setter
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Race {
     @Id
     @Column(name = "Name", length = 25)
@@ -40,9 +43,10 @@ public class Race {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        // Either side may be a lazy proxy, so compare entity classes and go through the getter.
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
         Race race = (Race) o;
-        return name.equals(race.name);
+        return getName().equals(race.getName());
     }
 
     @Override
@@ -0,0 +1,34 @@
+package org.swi_project.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A revoked access token (by token id) or a revoked account version (by username).
+ * Rows only matter until the newest affected access token would have expired anyway.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "revoked_token")
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(name = "min_version")
+    private Integer minVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
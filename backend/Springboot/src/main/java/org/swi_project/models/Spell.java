@@ -1,6 +1,7 @@
 package org.swi_project.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,9 +14,19 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name = "spell")
+@NamedEntityGraph(name = Spell.JSON,
+        attributeNodes = @NamedAttributeNode(value = "characters", subgraph = "character"),
+        subgraphs = {
+                @NamedSubgraph(name = "character", attributeNodes = {
+                        @NamedAttributeNode("items"),
+                        @NamedAttributeNode("quests"),
+                        @NamedAttributeNode(value = "ownedMonsters", subgraph = "monster")}),
+                @NamedSubgraph(name = "monster", attributeNodes = @NamedAttributeNode("loot"))})
 public class Spell {
+    public static final String JSON = "Spell.json";
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spell_seq")
+    @SequenceGenerator(name = "spell_seq", allocationSize = 50)
     @Column(name = "Id")
     private Integer id;
 
@@ -38,6 +49,11 @@ public class Spell {
     @Column(name = "Level", nullable = false)
     private int level;
 
+    @Version
+    @Column(name = "Version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     @ManyToMany(mappedBy = "spells")
     @JsonIgnoreProperties("spells")
     private List<Character> characters = new ArrayList<>();
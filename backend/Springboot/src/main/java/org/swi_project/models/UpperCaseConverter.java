@@ -0,0 +1,25 @@
+package org.swi_project.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Locale;
+
+/**
+ * Stores a code in upper case, whichever way it was written, so queries can compare the
+ * column directly and use its index. Hibernate applies it to every write path: persists,
+ * merges, criteria updates and query parameters bound to the attribute.
+ */
+@Converter
+public class UpperCaseConverter implements AttributeConverter<String, String> {
+
+    @Override
+    public String convertToDatabaseColumn(String value) {
+        return value != null ? value.toUpperCase(Locale.ROOT) : null;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        return column;
+    }
+}
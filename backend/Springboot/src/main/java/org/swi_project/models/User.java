@@ -39,4 +39,7 @@ public class User {
     private UserRole role = UserRole.USER;
 
     private boolean enabled = true;
+
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
 }
@@ -0,0 +1,152 @@
+package org.swi_project.pagination;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.MultiValueMap;
+import org.swi_project.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns list filters in the query string into a {@link Specification}, so they run in SQL
+ * together with keyset pagination. Each parameter that is not a paging parameter must name
+ * an allow-listed attribute path:
+ * <ul>
+ *     <li>{@code type=WEAPON} or {@code type=WEAPON,ARMOR} for any of several values</li>
+ *     <li>{@code level=3..5}, inclusive, with either end optional</li>
+ *     <li>{@code goldValue>=100}, {@code goldValue<=100}, {@code goldValue>100}, {@code goldValue<100}</li>
+ *     <li>{@code type!=WEAPON}</li>
+ *     <li>{@code name~=fire} for a case-insensitive substring</li>
+ * </ul>
+ * Values are converted to the attribute's type; several parameters are combined with AND.
+ */
+public final class FilterQuery {
+
+    static final Set<String> PAGING_PARAMETERS = Set.of("after", "limit", "sort", "view");
+
+    // "goldValue>100" arrives as a parameter name without a value.
+    private static final Pattern STRICT = Pattern.compile("([\\w.]+)([<>])(.*)");
+
+    private FilterQuery() {
+    }
+
+    public static <T> Specification<T> parse(MultiValueMap<String, String> parameters, Set<String> filterable) {
+        List<Condition> conditions = new ArrayList<>();
+        if (parameters != null) {
+            for (Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+                if (PAGING_PARAMETERS.contains(parameter.getKey())) {
+                    continue;
+                }
+                for (String value : parameter.getValue()) {
+                    Condition condition = toCondition(parameter.getKey(), value == null ? "" : value);
+                    if (!filterable.contains(condition.path())) {
+                        throw new BadRequestException("Unsupported filter: " + condition.path());
+                    }
+                    conditions.add(condition);
+                }
+            }
+        }
+        return (root, query, cb) -> conditions.isEmpty()
+                ? null
+                : cb.and(conditions.stream().map(c -> c.toPredicate(root, cb)).toArray(Predicate[]::new));
+    }
+
+    private static Condition toCondition(String name, String value) {
+        Matcher strict = STRICT.matcher(name);
+        if (value.isEmpty() && strict.matches()) {
+            return new Condition(strict.group(1), strict.group(2).equals(">") ? Operator.GT : Operator.LT,
+                    List.of(strict.group(3)));
+        }
+        if (name.endsWith(">")) {
+            return new Condition(field(name), Operator.GE, List.of(value));
+        }
+        if (name.endsWith("<")) {
+            return new Condition(field(name), Operator.LE, List.of(value));
+        }
+        if (name.endsWith("!")) {
+            return new Condition(field(name), Operator.NE, List.of(value));
+        }
+        if (name.endsWith("~")) {
+            return new Condition(field(name), Operator.CONTAINS, List.of(value));
+        }
+        int range = value.indexOf("..");
+        if (range >= 0) {
+            return new Condition(name, Operator.RANGE, List.of(value.substring(0, range), value.substring(range + 2)));
+        }
+        return new Condition(name, Operator.EQ, Arrays.asList(value.split(",")));
+    }
+
+    private static String field(String name) {
+        return name.substring(0, name.length() - 1);
+    }
+
+    private enum Operator {
+        EQ, NE, GT, GE, LT, LE, RANGE, CONTAINS
+    }
+
+    private record Condition(String path, Operator operator, List<String> values) {
+
+        @SuppressWarnings("unchecked")
+        Predicate toPredicate(Root<?> root, CriteriaBuilder cb) {
+            Path<Comparable> path = resolve(root);
+            return switch (operator) {
+                case EQ -> values.size() == 1
+                        ? cb.equal(path, convert(path, values.get(0)))
+                        : path.in(values.stream().map(v -> convert(path, v)).toList());
+                case NE -> cb.notEqual(path, convert(path, values.get(0)));
+                case GT -> cb.greaterThan(path, convert(path, values.get(0)));
+                case GE -> cb.greaterThanOrEqualTo(path, convert(path, values.get(0)));
+                case LT -> cb.lessThan(path, convert(path, values.get(0)));
+                case LE -> cb.lessThanOrEqualTo(path, convert(path, values.get(0)));
+                case RANGE -> {
+                    List<Predicate> bounds = new ArrayList<>();
+                    if (!values.get(0).isEmpty()) {
+                        bounds.add(cb.greaterThanOrEqualTo(path, convert(path, values.get(0))));
+                    }
+                    if (!values.get(1).isEmpty()) {
+                        bounds.add(cb.lessThanOrEqualTo(path, convert(path, values.get(1))));
+                    }
+                    yield cb.and(bounds.toArray(Predicate[]::new));
+                }
+                case CONTAINS -> cb.like(cb.lower(path.as(String.class)), "%" + escape(values.get(0).toLowerCase()) + "%", '\\');
+            };
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Path<Comparable> resolve(Root<?> root) {
+            Path<Comparable> path = (Path<Comparable>) (Path<?>) root;
+            for (String segment : this.path.split("\\.")) {
+                path = path.get(segment);
+            }
+            return path;
+        }
+
+        @SuppressWarnings("rawtypes")
+        private Comparable convert(Path<?> path, String value) {
+            try {
+                Object converted = DefaultConversionService.getSharedInstance().convert(value.trim(), path.getJavaType());
+                if (converted == null) {
+                    throw new BadRequestException("Missing value for filter: " + this.path);
+                }
+                return (Comparable) converted;
+            } catch (ConversionException e) {
+                throw new BadRequestException("Invalid value for filter " + this.path + ": " + value);
+            }
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.swi_project.pagination;
+
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import org.hibernate.Hibernate;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the lazy associations that Jackson writes for a response body. With open-in-view
+ * disabled the body is serialized after the transaction has ended, so it has to be complete
+ * when the handler returns.
+ * <p>
+ * What to load is read from the entity graph named {@code <Entity>.json} on the body's
+ * entity class, declared next to the {@code @JsonIgnoreProperties} it has to agree with.
+ * Entities without such a graph are left as they are. Collections of the same role load in
+ * IN-batches, so a page costs the same number of statements as a single entity.
+ */
+public final class JsonGraph {
+
+    private static final ClassValue<List<Node>> GRAPHS = new ClassValue<>() {
+        @Override
+        protected List<Node> computeValue(Class<?> type) {
+            return parse(type);
+        }
+    };
+
+    private JsonGraph() {
+    }
+
+    /**
+     * Initializes everything the JSON of {@code body} reaches and returns it. Accepts
+     * entities, collections of entities and cursor pages; anything else is returned as is.
+     */
+    public static <T> T initialize(T body) {
+        if (body instanceof CursorPage<?> page) {
+            page.items().forEach(JsonGraph::initialize);
+        } else if (body instanceof Collection<?> collection) {
+            collection.forEach(JsonGraph::initialize);
+        } else if (body != null) {
+            initialize(body, GRAPHS.get(Hibernate.getClass(body)));
+        }
+        return body;
+    }
+
+    private static void initialize(Object entity, List<Node> graph) {
+        if (graph.isEmpty()) {
+            return;
+        }
+        // Through the getters, which also work on an uninitialized proxy.
+        var properties = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        for (Node node : graph) {
+            Object value = properties.getPropertyValue(node.attribute());
+            Hibernate.initialize(value);
+            if (value instanceof Collection<?> collection) {
+                collection.forEach(element -> initialize(element, node.subgraph()));
+            } else if (value != null) {
+                initialize(value, node.subgraph());
+            }
+        }
+    }
+
+    private static List<Node> parse(Class<?> type) {
+        String name = type.getSimpleName() + ".json";
+        for (NamedEntityGraph graph : type.getAnnotationsByType(NamedEntityGraph.class)) {
+            if (graph.name().equals(name)) {
+                Map<String, NamedAttributeNode[]> subgraphs = new HashMap<>();
+                for (NamedSubgraph subgraph : graph.subgraphs()) {
+                    subgraphs.put(subgraph.name(), subgraph.attributeNodes());
+                }
+                return nodes(graph.attributeNodes(), subgraphs, name);
+            }
+        }
+        return List.of();
+    }
+
+    private static List<Node> nodes(NamedAttributeNode[] attributes, Map<String, NamedAttributeNode[]> subgraphs,
+                                    String graph) {
+        List<Node> nodes = new ArrayList<>(attributes.length);
+        for (NamedAttributeNode attribute : attributes) {
+            NamedAttributeNode[] subgraph = new NamedAttributeNode[0];
+            if (!attribute.subgraph().isEmpty()) {
+                subgraph = subgraphs.get(attribute.subgraph());
+                if (subgraph == null) {
+                    throw new IllegalStateException("Unknown subgraph " + attribute.subgraph() + " in " + graph);
+                }
+            }
+            nodes.add(new Node(attribute.value(), nodes(subgraph, subgraphs, graph)));
+        }
+        return List.copyOf(nodes);
+    }
+
+    private record Node(String attribute, List<Node> subgraph) {
+    }
+}
@@ -0,0 +1,234 @@
+package org.swi_project.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Component;
+import org.swi_project.exception.BadRequestException;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyset (seek) pagination for the list endpoints. Pages are ordered by an allow-listed
+ * property with the id as tie-breaker, and each page continues strictly after the last
+ * row of the previous one, so deep pages cost the same as the first one.
+ * <p>
+ * {@code sort} is a property name, prefixed with {@code -} for descending order. The
+ * cursor is opaque to clients and only valid for the sort it was issued with.
+ * <p>
+ * Entities are paged through Spring Data's scroll API. {@link Projection}s are paged with
+ * a criteria query that selects only the projected columns and seeks past the cursor with
+ * an explicit {@code (sort, id) > (lastSort, lastId)} predicate.
+ */
+@Component
+public class KeysetPager {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public KeysetPager(EntityManager entityManager, ObjectMapper objectMapper,
+                       @Value("${pagination.default-limit:100}") int defaultLimit,
+                       @Value("${pagination.max-limit:500}") int maxLimit) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public <T> CursorPage<T> page(JpaSpecificationExecutor<T> repository, Set<String> sortable,
+                                  String sort, String after, Integer limit) {
+        return page(repository, (root, query, cb) -> null, sortable, sort, after, limit);
+    }
+
+    public <T> CursorPage<T> page(JpaSpecificationExecutor<T> repository, Specification<T> filter,
+                                  Set<String> sortable, String sort, String after, Integer limit) {
+        String sortKey = sort == null || sort.isBlank() ? ID : sort;
+        Sort order = toSort(sortKey, sortable);
+        ScrollPosition position = after == null || after.isBlank()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(decode(after, sortKey));
+        int pageSize = resolveLimit(limit);
+
+        Window<T> window = repository.findBy(filter, query -> query
+                .sortBy(order)
+                .limit(pageSize)
+                .scroll(position));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = encode(sortKey, last.getKeys());
+        }
+        return new CursorPage<>(window.getContent(), nextCursor);
+    }
+
+    public <T, R extends Record> CursorPage<R> page(Class<T> entityType, Projection<R> projection,
+                                                    Set<String> sortable, String sort, String after,
+                                                    Integer limit) {
+        return page(entityType, projection, (root, query, cb) -> null, sortable, sort, after, limit);
+    }
+
+    public <T, R extends Record> CursorPage<R> page(Class<T> entityType, Projection<R> projection,
+                                                    Specification<T> filter, Set<String> sortable,
+                                                    String sort, String after, Integer limit) {
+        String sortKey = sort == null || sort.isBlank() ? ID : sort;
+        Sort order = toSort(sortKey, sortable);
+        int pageSize = resolveLimit(limit);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(projection.type());
+        Root<T> root = query.from(entityType);
+        query.select(cb.construct(projection.type(), projection.paths().stream()
+                .map(path -> resolve(root, path))
+                .toArray(Selection[]::new)));
+
+        List<Predicate> where = new ArrayList<>();
+        Predicate filtered = filter.toPredicate(root, query, cb);
+        if (filtered != null) {
+            where.add(filtered);
+        }
+        if (after != null && !after.isBlank()) {
+            where.add(seek(cb, root, order, decode(after, sortKey)));
+        }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(order.stream()
+                .map(o -> o.isAscending() ? cb.asc(root.get(o.getProperty())) : cb.desc(root.get(o.getProperty())))
+                .toList());
+
+        // One extra row tells whether there is a next page without a count query.
+        List<R> rows = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<R> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, encode(sortKey, keysOf(items.get(pageSize - 1), order)));
+    }
+
+    // Navigating to the id of a to-one association reads the foreign key column, no join needed.
+    private static Path<?> resolve(Root<?> root, String path) {
+        Path<?> resolved = root;
+        for (String segment : path.split("\\.")) {
+            resolved = resolved.get(segment);
+        }
+        return resolved;
+    }
+
+    /**
+     * Builds the lexicographic "strictly after" predicate for the given order, e.g.
+     * {@code name > :name OR (name = :name AND id > :id)}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seek(CriteriaBuilder cb, Root<?> root, Sort order, Map<String, Object> keys) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalSoFar = new ArrayList<>();
+        for (Sort.Order o : order) {
+            Path<Comparable> path = root.get(o.getProperty());
+            Object raw = keys.get(o.getProperty());
+            if (raw == null) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            Comparable value = (Comparable) DefaultConversionService.getSharedInstance()
+                    .convert(raw, path.getJavaType());
+
+            List<Predicate> step = new ArrayList<>(equalSoFar);
+            step.add(o.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+            alternatives.add(cb.and(step.toArray(Predicate[]::new)));
+            equalSoFar.add(cb.equal(path, value));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private static Map<String, Object> keysOf(Record row, Sort order) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order o : order) {
+            keys.put(o.getProperty(), component(row, o.getProperty()));
+        }
+        return keys;
+    }
+
+    private static Object component(Record row, String name) {
+        for (RecordComponent component : row.getClass().getRecordComponents()) {
+            if (component.getName().equals(name)) {
+                try {
+                    return component.getAccessor().invoke(row);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new IllegalStateException("Could not read " + name + " of " + row.getClass(), e);
+                }
+            }
+        }
+        throw new IllegalStateException(row.getClass().getSimpleName() + " has no sort key " + name);
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    private Sort toSort(String sortKey, Set<String> sortable) {
+        boolean descending = sortKey.startsWith("-");
+        String property = descending ? sortKey.substring(1) : sortKey;
+        if (!sortable.contains(property)) {
+            throw new BadRequestException("Unsupported sort property: " + property);
+        }
+
+        Sort order = Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, property);
+        return ID.equals(property) ? order : order.and(Sort.by(ID));
+    }
+
+    private String encode(String sortKey, Map<String, Object> keys) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(new Cursor(sortKey, keys));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    private Map<String, Object> decode(String cursor, String sortKey) {
+        Cursor decoded;
+        try {
+            decoded = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), Cursor.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (!sortKey.equals(decoded.sort()) || decoded.keys() == null || decoded.keys().isEmpty()) {
+            throw new BadRequestException("Cursor does not match the requested sort");
+        }
+        return decoded.keys();
+    }
+
+    private record Cursor(String sort, Map<String, Object> keys) {
+    }
+}
@@ -0,0 +1,21 @@
+package org.swi_project.pagination;
+
+import org.swi_project.exception.BadRequestException;
+
+/**
+ * Shape of list responses: compact summaries by default, full entity graphs on request.
+ */
+public enum ListView {
+    SUMMARY, FULL;
+
+    public static ListView from(String view) {
+        if (view == null || view.isBlank()) {
+            return SUMMARY;
+        }
+        try {
+            return valueOf(view.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported view: " + view);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.swi_project.pagination;
+
+import java.util.List;
+
+/**
+ * Column-level projection of an entity into a record. {@code paths} are entity attribute
+ * paths (e.g. {@code race.name}) in the order of the record's canonical constructor.
+ * Record components must be named after the entity properties they can be sorted by.
+ */
+public record Projection<R extends Record>(Class<R> type, List<String> paths) {
+
+    public Projection(Class<R> type, String... paths) {
+        this(type, List.of(paths));
+    }
+}
@@ -0,0 +1,168 @@
+package org.swi_project.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ReflectionUtils;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.exception.PreconditionFailedException;
+import org.swi_project.exception.ResourceNotFoundException;
+
+import java.lang.reflect.Field;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies JSON Merge Patch (RFC 7396) documents to versioned entities with a single UPDATE
+ * that sets only the supplied columns and increments the version. The entity is never
+ * loaded, so a patch costs one statement no matter how large the row is.
+ * <p>
+ * An {@code If-Match} header carrying the entity's {@code version} as a strong tag, e.g.
+ * {@code "3"}, makes the update conditional; a stale version is rejected with 412. The
+ * version comes from the entity's JSON or from the ETag of the previous patch. It is not
+ * the weak ETag of a GET, which validates the cached representation including nested
+ * resources and changes whenever any of them does; {@code If-Match} uses strong
+ * comparison, so weak tags never match.
+ */
+@Service
+@RequiredArgsConstructor
+public class MergePatchService {
+
+    public static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
+    private static final String ID = "id";
+    private static final String VERSION = "version";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Patches the entity and returns its new version.
+     *
+     * @param patchable attributes that may appear in the patch; anything else is rejected
+     */
+    @Transactional
+    public <T> long apply(Class<T> entityType, String resourceName, int id, JsonNode patch,
+                          Set<String> patchable, String ifMatch) {
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("Merge patch must be a JSON object");
+        }
+        Long expected = parseIfMatch(ifMatch);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityType);
+        Root<T> root = update.from(entityType);
+
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            setField(update, root, entityType, field.getKey(), field.getValue(), patchable);
+        }
+        Path<Long> version = root.get(VERSION);
+        update.set(version, cb.sum(version, 1L));
+
+        Predicate matches = cb.equal(root.get(ID), id);
+        if (expected != null) {
+            matches = cb.and(matches, cb.equal(version, expected));
+        }
+        update.where(matches);
+
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            Long current = currentVersion(entityType, id);
+            if (current == null) {
+                throw new ResourceNotFoundException(resourceName, id);
+            }
+            throw new PreconditionFailedException(resourceName + " " + id + " has been modified; current version is "
+                    + current);
+        }
+        return expected != null ? expected + 1 : currentVersion(entityType, id);
+    }
+
+    /**
+     * 204 response carrying the new version as the ETag for the next {@code If-Match}.
+     */
+    public static ResponseEntity<Void> patched(long version) {
+        return ResponseEntity.noContent().eTag(String.valueOf(version)).build();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> void setField(CriteriaUpdate<T> update, Root<T> root, Class<T> entityType, String name,
+                              JsonNode node, Set<String> patchable) {
+        if (!patchable.contains(name)) {
+            throw new BadRequestException("Field cannot be patched: " + name);
+        }
+        Path path = root.get(name);
+        Class<?> javaType = path.getJavaType();
+
+        Object value;
+        try {
+            value = objectMapper.convertValue(node, javaType);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid value for " + name);
+        }
+        if (value == null && !isNullable(entityType, name)) {
+            throw new BadRequestException(name + " cannot be null");
+        }
+
+        Set<? extends ConstraintViolation<T>> violations = validator.validateValue(entityType, name, value);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(name + " " + violations.iterator().next().getMessage());
+        }
+        update.set(path, value);
+    }
+
+    private static boolean isNullable(Class<?> entityType, String name) {
+        Field field = ReflectionUtils.findField(entityType, name);
+        if (field == null) {
+            return true;
+        }
+        Column column = field.getAnnotation(Column.class);
+        return !field.getType().isPrimitive() && (column == null || column.nullable());
+    }
+
+    private <T> Long currentVersion(Class<T> entityType, int id) {
+        List<Long> versions = entityManager.createQuery(
+                        "SELECT e.version FROM " + entityType.getSimpleName() + " e WHERE e.id = :id", Long.class)
+                .setParameter(ID, id)
+                .getResultList();
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    /**
+     * Reads the version from {@code If-Match}; returns null when the header is absent or
+     * {@code *}. Weak tags fail the strong comparison {@code If-Match} requires.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match needs the entity version as a strong tag, e.g. \"3\"; "
+                    + "weak tags never match");
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not name a version: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.swi_project.reference;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.swi_project.models.CharacterClass;
+import org.swi_project.models.Race;
+import org.swi_project.repositories.CharacterClassRepository;
+import org.swi_project.repositories.RaceRepository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Races and character classes, loaded once at startup and served from memory. The tables
+ * only change through deployments, so the registry is replaced as a whole on an explicit
+ * {@link #reload()} and never consults the database otherwise.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataRegistry {
+
+    private final RaceRepository raceRepository;
+    private final CharacterClassRepository characterClassRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    @PostConstruct
+    public void reload() {
+        Sort byName = Sort.by("name");
+        snapshot = new Snapshot(
+                index(raceRepository.findAll(byName), Race::getName),
+                index(characterClassRepository.findAll(byName), CharacterClass::getName));
+        log.info("Loaded {} races and {} character classes",
+                snapshot.races().size(), snapshot.characterClasses().size());
+    }
+
+    public Optional<Race> findRace(String name) {
+        return Optional.ofNullable(snapshot.races().get(name));
+    }
+
+    public Optional<CharacterClass> findCharacterClass(String name) {
+        return Optional.ofNullable(snapshot.characterClasses().get(name));
+    }
+
+    public Collection<Race> races() {
+        return snapshot.races().values();
+    }
+
+    public Collection<CharacterClass> characterClasses() {
+        return snapshot.characterClasses().values();
+    }
+
+    private static <T> Map<String, T> index(List<T> entries, Function<T, String> name) {
+        Map<String, T> byName = new LinkedHashMap<>();
+        entries.forEach(entry -> byName.put(name.apply(entry), entry));
+        return Collections.unmodifiableMap(byName);
+    }
+
+    private record Snapshot(Map<String, Race> races, Map<String, CharacterClass> characterClasses) {
+    }
+}
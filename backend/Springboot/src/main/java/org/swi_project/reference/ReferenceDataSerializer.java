@@ -0,0 +1,46 @@
+package org.swi_project.reference;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.hibernate.Hibernate;
+import org.swi_project.models.CharacterClass;
+import org.swi_project.models.Race;
+
+import java.io.IOException;
+
+/**
+ * Writes a race or character class reference from the {@link ReferenceDataRegistry}.
+ * Only the name of the reference is read, which a lazy proxy answers without loading
+ * the row. Names unknown to the registry fall back to the reference itself, or, for a
+ * proxy that was never loaded, to its name alone: the session is closed by the time the
+ * response is written.
+ */
+public class ReferenceDataSerializer extends JsonSerializer<Object> {
+
+    private final ReferenceDataRegistry registry;
+
+    public ReferenceDataSerializer(ReferenceDataRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void serialize(Object value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        Object resolved = value;
+        String name = null;
+        if (value instanceof Race race) {
+            name = race.getName();
+            resolved = registry.findRace(name).orElse(race);
+        } else if (value instanceof CharacterClass characterClass) {
+            name = characterClass.getName();
+            resolved = registry.findCharacterClass(name).orElse(characterClass);
+        }
+        if (!Hibernate.isInitialized(resolved)) {
+            gen.writeStartObject();
+            gen.writeStringField("name", name);
+            gen.writeEndObject();
+            return;
+        }
+        serializers.defaultSerializeValue(resolved, gen);
+    }
+}
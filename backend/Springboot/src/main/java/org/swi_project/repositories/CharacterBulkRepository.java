@@ -0,0 +1,24 @@
+package org.swi_project.repositories;
+
+import org.swi_project.DTO.BulkCharacterUpdate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based character mutations, each issued as a single UPDATE statement.
+ */
+public interface CharacterBulkRepository {
+
+    /**
+     * Ids of the characters matching {@code filter}, locked until the transaction ends so
+     * they keep matching until the update runs.
+     */
+    List<Integer> lockIds(BulkCharacterUpdate.Filter filter);
+
+    /**
+     * Updates the characters in {@code ids}; with a filter in {@code update}, only those
+     * that still match it.
+     */
+    int bulkUpdate(Collection<Integer> ids, BulkCharacterUpdate update);
+}
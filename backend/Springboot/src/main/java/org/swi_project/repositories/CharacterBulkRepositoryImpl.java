@@ -0,0 +1,120 @@
+package org.swi_project.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.swi_project.DTO.BulkCharacterUpdate;
+import org.swi_project.DTO.BulkCharacterUpdate.Filter;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.models.Character;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+class CharacterBulkRepositoryImpl implements CharacterBulkRepository {
+
+    private static final int MAX_LEVEL = 20;
+    private static final int MAX_STATUS_LENGTH = 25;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Integer> lockIds(Filter filter) {
+        if (filter == null || filter.isEmpty()) {
+            throw new BadRequestException("Filter needs at least one criterion");
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<Character> root = query.from(Character.class);
+
+        query.select(root.get("id")).where(matching(cb, root, filter)).orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList();
+    }
+
+    @Override
+    public int bulkUpdate(Collection<Integer> ids, BulkCharacterUpdate update) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Character> statement = cb.createCriteriaUpdate(Character.class);
+        Root<Character> root = statement.from(Character.class);
+        Path<Integer> currentHp = root.get("currentHp");
+        Path<Integer> maxHp = root.get("maxHp");
+        Path<Integer> level = root.get("level");
+        Integer amount = update.amount();
+
+        switch (update.operation()) {
+            case HEAL -> {
+                if (amount == null) {
+                    statement.set(currentHp, maxHp);
+                    statement.set(root.<String>get("status"), Character.STATUS_ALIVE);
+                } else {
+                    Expression<Integer> healed = cb.sum(currentHp, positive(amount));
+                    statement.set(currentHp, cb.<Integer>selectCase().when(cb.gt(healed, maxHp), maxHp).otherwise(healed));
+                }
+            }
+            case DAMAGE -> {
+                Expression<Integer> damaged = cb.diff(currentHp, positive(amount));
+                statement.set(currentHp, cb.<Integer>selectCase().when(cb.lt(damaged, 0), 0).otherwise(damaged));
+            }
+            case SET_STATUS -> {
+                String status = update.status();
+                if (status == null || status.isBlank() || status.length() > MAX_STATUS_LENGTH) {
+                    throw new BadRequestException("Status must be 1 to " + MAX_STATUS_LENGTH + " characters");
+                }
+                statement.set(root.<String>get("status"), status);
+            }
+            case LEVEL_UP -> {
+                Expression<Integer> raised = cb.sum(level, amount == null ? 1 : positive(amount));
+                statement.set(level, cb.<Integer>selectCase().when(cb.gt(raised, MAX_LEVEL), MAX_LEVEL).otherwise(raised));
+            }
+        }
+
+        // Bulk statements bypass Hibernate's versioning, so the version is raised by hand.
+        Path<Long> version = root.get("version");
+        statement.set(version, cb.sum(version, 1L));
+        // The filter is repeated so a character that stopped matching is never updated.
+        Predicate targeted = root.get("id").in(ids);
+        statement.where(update.filter() == null ? targeted : cb.and(targeted, matching(cb, root, update.filter())));
+        return entityManager.createQuery(statement).executeUpdate();
+    }
+
+    // Race and class are compared on the foreign key columns, without joining, so the same
+    // predicate works in a query and in an UPDATE.
+    private static Predicate matching(CriteriaBuilder cb, Root<Character> root, Filter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.status() != null) {
+            predicates.add(cb.equal(root.get("status"), filter.status()));
+        }
+        if (filter.race() != null) {
+            predicates.add(cb.equal(root.get("race").get("name"), filter.race()));
+        }
+        if (filter.characterClass() != null) {
+            predicates.add(cb.equal(root.get("characterClass").get("name"), filter.characterClass()));
+        }
+        if (filter.minLevel() != null) {
+            predicates.add(cb.ge(root.get("level"), filter.minLevel()));
+        }
+        if (filter.maxLevel() != null) {
+            predicates.add(cb.le(root.get("level"), filter.maxLevel()));
+        }
+        return cb.and(predicates.toArray(Predicate[]::new));
+    }
+
+    private static int positive(Integer amount) {
+        if (amount == null || amount < 1) {
+            throw new BadRequestException("Amount must be a positive number");
+        }
+        return amount;
+    }
+}
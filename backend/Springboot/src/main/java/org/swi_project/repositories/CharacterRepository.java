@@ -1,7 +1,51 @@
 package org.swi_project.repositories;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.swi_project.DTO.CharacterSummary;
+import org.swi_project.DTO.CharacterVitals;
 import org.swi_project.models.Character;
+import org.swi_project.pagination.Projection;
 
-public interface CharacterRepository extends JpaRepository<Character, Integer> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface CharacterRepository extends JpaRepository<Character, Integer>, JpaSpecificationExecutor<Character>,
+        CharacterBulkRepository {
+    Projection<CharacterSummary> SUMMARY = new Projection<>(CharacterSummary.class,
+            "id", "name", "level", "characterClass.name", "race.name",
+            "currentHp", "maxHp", "status");
+
+    /**
+     * Loads the character and schedules a version increment at commit, so two transactions
+     * changing the same inventory cannot both commit.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT c FROM Character c WHERE c.id = :id")
+    Optional<Character> findForInventoryUpdate(@Param("id") int id);
+
+    /**
+     * Item types are stored in upper case (see UpperCaseConverter), so the comparison can
+     * use the type index.
+     */
+    @Query("SELECT count(i) FROM Character c JOIN c.items i WHERE c.id = :characterId AND i.type = :type")
+    long countItemsOfType(@Param("characterId") int characterId, @Param("type") String type);
+
+    @Query("SELECT i.id FROM Character c JOIN c.items i WHERE c.id = :characterId AND i.id IN :itemIds")
+    Set<Integer> findOwnedItemIds(@Param("characterId") int characterId, @Param("itemIds") Collection<Integer> itemIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO charitems (character_id, item_id) VALUES (:characterId, :itemId)", nativeQuery = true)
+    void insertItem(@Param("characterId") int characterId, @Param("itemId") int itemId);
+
+    @Query("SELECT new org.swi_project.DTO.CharacterVitals(c.id, c.level, c.currentHp, c.maxHp, c.status, c.version) "
+            + "FROM Character c WHERE c.id IN :ids ORDER BY c.id")
+    List<CharacterVitals> findVitals(@Param("ids") Collection<Integer> ids);
 }
@@ -1,7 +1,18 @@
 package org.swi_project.repositories;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.swi_project.DTO.LocationSummary;
 import org.swi_project.models.Location;
+import org.swi_project.pagination.Projection;
 
-public interface LocationRepository extends JpaRepository<Location, Integer> {
+import java.util.Optional;
+
+public interface LocationRepository extends JpaRepository<Location, Integer>, JpaSpecificationExecutor<Location> {
+    Projection<LocationSummary> SUMMARY = new Projection<>(LocationSummary.class,
+            "id", "name");
+
+    @EntityGraph(Location.WITH_MONSTERS)
+    Optional<Location> findDetailById(int id);
 }
@@ -1,7 +1,12 @@
 package org.swi_project.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.swi_project.DTO.MonsterSummary;
 import org.swi_project.models.Monster;
+import org.swi_project.pagination.Projection;
 
-public interface MonsterRepository extends JpaRepository<Monster, Integer> {
+public interface MonsterRepository extends JpaRepository<Monster, Integer>, JpaSpecificationExecutor<Monster> {
+    Projection<MonsterSummary> SUMMARY = new Projection<>(MonsterSummary.class,
+            "id", "name", "type", "health", "attack", "defense", "boss");
 }
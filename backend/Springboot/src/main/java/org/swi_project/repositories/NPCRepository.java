@@ -1,6 +1,9 @@
 package org.swi_project.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.swi_project.models.Character;
 import org.swi_project.models.Location;
 import org.swi_project.models.Monster;
@@ -8,9 +11,12 @@ import org.swi_project.models.NPC;
 
 import java.util.List;
 
-public interface NPCRepository extends JpaRepository<NPC, Integer> {
+public interface NPCRepository extends JpaRepository<NPC, Integer>, JpaSpecificationExecutor<NPC> {
     List<NPC> findByRole(String role);
     List<NPC> findByHostility(boolean hostility);
     List<NPC> findByLocation(Location location);
 
+    @Query("SELECT n.id FROM NPC n WHERE n.location.id = :locationId")
+    List<Integer> findIdsByLocationId(@Param("locationId") int locationId);
+
 }
@@ -1,12 +1,18 @@
 package org.swi_project.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.swi_project.DTO.QuestSummary;
 import org.swi_project.models.Character;
 import org.swi_project.models.Quest;
+import org.swi_project.pagination.Projection;
 
 import java.util.List;
 
-public interface QuestRepository extends JpaRepository<Quest, Integer> {
+public interface QuestRepository extends JpaRepository<Quest, Integer>, JpaSpecificationExecutor<Quest> {
+    Projection<QuestSummary> SUMMARY = new Projection<>(QuestSummary.class,
+            "id", "title", "type", "completion");
+
     List<Quest> findByCompletion(boolean completion);
     List<Quest> findByType(String type);
     List<Quest> findByParticipantsContaining(Character character);
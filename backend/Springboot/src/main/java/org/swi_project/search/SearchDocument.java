@@ -0,0 +1,37 @@
+package org.swi_project.search;
+
+import org.swi_project.models.Item;
+import org.swi_project.models.Monster;
+import org.swi_project.models.NPC;
+import org.swi_project.models.Spell;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Searchable text of one entity: its name, which ranks higher, and its longer text fields.
+ */
+public record SearchDocument(SearchType type, int id, String name, List<String> texts) {
+
+    public static SearchDocument of(Item item) {
+        return create(SearchType.ITEMS, item.getId(), item.getName(), item.getDescription(), item.getMagicalProperties());
+    }
+
+    public static SearchDocument of(Spell spell) {
+        return create(SearchType.SPELLS, spell.getId(), spell.getName(), spell.getDescription());
+    }
+
+    public static SearchDocument of(Monster monster) {
+        return create(SearchType.MONSTERS, monster.getId(), monster.getName(), monster.getDescription(),
+                monster.getAbilities());
+    }
+
+    public static SearchDocument of(NPC npc) {
+        return create(SearchType.NPCS, npc.getId(), npc.getName(), npc.getDescription());
+    }
+
+    static SearchDocument create(SearchType type, int id, String name, String... texts) {
+        return new SearchDocument(type, id, name, Arrays.stream(texts).filter(Objects::nonNull).toList());
+    }
+}
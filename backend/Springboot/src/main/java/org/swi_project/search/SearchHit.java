@@ -0,0 +1,4 @@
+package org.swi_project.search;
+
+public record SearchHit(String type, int id, String name, double score) {
+}
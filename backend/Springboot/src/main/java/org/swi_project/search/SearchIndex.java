@@ -0,0 +1,314 @@
+package org.swi_project.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory full-text index over items, spells, monsters and NPCs. Terms map to the
+ * documents containing them with a weight per document; terms are kept sorted, so the
+ * completions of a prefix are one range of the map. Controllers update the index on every
+ * write, applied once the write commits. The index is rebuilt from the database at startup
+ * and periodically after that, which also picks up writes made on other instances.
+ */
+@Component
+@Slf4j
+public class SearchIndex {
+
+    static final int NAME_WEIGHT = 3;
+    static final int TEXT_WEIGHT = 1;
+    // Completions of the last query term score lower than an exact match and are capped,
+    // so a one-letter prefix stays cheap.
+    static final double PREFIX_FACTOR = 0.7;
+    static final int MAX_COMPLETIONS = 256;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private TreeMap<String, Map<Key, Integer>> postings = new TreeMap<>();
+    private Map<Key, Entry> documents = new HashMap<>();
+    // Updates applied while a rebuild loads, replayed onto its result; null entries are removals.
+    private Map<Key, Entry> updatedDuringRebuild;
+
+    public SearchIndex(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reloads every indexed type, each on its own thread, and swaps the result in. Updates
+     * committed while the types load may be missing from what was read, so they are applied
+     * again on top.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${search.rebuild-ms:600000}", fixedDelayString = "${search.rebuild-ms:600000}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            updatedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Map<Key, Entry>> loaded;
+        try {
+            loaded = Arrays.stream(SearchType.values())
+                    .parallel()
+                    .map(type -> analyze(load(type)))
+                    .toList();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                updatedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        TreeMap<String, Map<Key, Integer>> newPostings = new TreeMap<>();
+        Map<Key, Entry> newDocuments = new HashMap<>();
+        for (Map<Key, Entry> entries : loaded) {
+            entries.forEach((key, entry) -> {
+                newDocuments.put(key, entry);
+                addPostings(newPostings, key, entry);
+            });
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documents = newDocuments;
+            Map<Key, Entry> updates = updatedDuringRebuild;
+            updatedDuringRebuild = null;
+            updates.forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} documents with {} terms in {} ms", newDocuments.size(), newPostings.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Indexes the document once the current transaction commits, so an edit that is rolled
+     * back, e.g. on an optimistic conflict, never becomes searchable. Outside a transaction
+     * the document is indexed right away.
+     */
+    public void put(SearchDocument document) {
+        Key key = new Key(document.type(), document.id());
+        Entry entry = analyze(document);
+        afterCommit(() -> apply(key, entry));
+    }
+
+    public void remove(SearchType type, int id) {
+        Key key = new Key(type, id);
+        afterCommit(() -> apply(key, null));
+    }
+
+    /**
+     * Returns the best matches that contain every query term. The last term also matches
+     * as a prefix unless the query ends with a space, which makes search-as-you-type work.
+     * An empty {@code types} set searches all types.
+     */
+    public List<SearchHit> search(String query, Set<SearchType> types, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        boolean completeLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            Map<Key, Double> scores = null;
+            for (int i = 0; i < terms.size() && (scores == null || !scores.isEmpty()); i++) {
+                boolean prefix = completeLast && i == terms.size() - 1;
+                Map<Key, Double> termScores = score(terms.get(i), prefix, types);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Key, Double> both = new HashMap<>();
+                    for (Map.Entry<Key, Double> scored : scores.entrySet()) {
+                        Double other = termScores.get(scored.getKey());
+                        if (other != null) {
+                            both.put(scored.getKey(), scored.getValue() + other);
+                        }
+                    }
+                    scores = both;
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded)).filter(term -> !term.isEmpty()).toList();
+    }
+
+    private Map<Key, Double> score(String term, boolean prefix, Set<SearchType> types) {
+        Map<Key, Double> scores = new HashMap<>();
+        Collection<Map.Entry<String, Map<Key, Integer>>> matches = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()
+                : postings.containsKey(term) ? List.of(Map.entry(term, postings.get(term))) : List.of();
+
+        int completions = 0;
+        for (Map.Entry<String, Map<Key, Integer>> match : matches) {
+            if (completions++ >= MAX_COMPLETIONS) {
+                break;
+            }
+            Map<Key, Integer> docs = match.getValue();
+            double idf = Math.log(1 + (double) documents.size() / docs.size());
+            double factor = match.getKey().equals(term) ? 1 : PREFIX_FACTOR;
+            for (Map.Entry<Key, Integer> doc : docs.entrySet()) {
+                if (types.isEmpty() || types.contains(doc.getKey().type())) {
+                    scores.merge(doc.getKey(), doc.getValue() * idf * factor, Math::max);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private List<SearchHit> top(Map<Key, Double> scores, int limit) {
+        Comparator<SearchHit> ranking = Comparator.comparingDouble(SearchHit::score).reversed()
+                .thenComparing(SearchHit::name, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(SearchHit::id);
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Key, Double> scored : scores.entrySet()) {
+            Key key = scored.getKey();
+            best.add(new SearchHit(key.type().path(), key.id(), documents.get(key).name(), scored.getValue()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        return hits;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private void apply(Key key, Entry entry) {
+        lock.writeLock().lock();
+        try {
+            if (updatedDuringRebuild != null) {
+                updatedDuringRebuild.put(key, entry);
+            }
+            Entry previous = entry != null ? documents.put(key, entry) : documents.remove(key);
+            if (previous != null) {
+                removePostings(key, previous);
+            }
+            if (entry != null) {
+                addPostings(postings, key, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<SearchDocument> load(SearchType type) {
+        String query = switch (type) {
+            case ITEMS -> "SELECT i.id, i.name, i.description, i.magicalProperties FROM Item i";
+            case SPELLS -> "SELECT s.id, s.name, s.description FROM Spell s";
+            case MONSTERS -> "SELECT m.id, m.name, m.description, m.abilities FROM Monster m";
+            case NPCS -> "SELECT n.id, n.name, n.description FROM NPC n";
+        };
+        return readOnlyTransaction.execute(status -> entityManager.createQuery(query, Object[].class)
+                .getResultStream()
+                .map(row -> SearchDocument.create(type, (Integer) row[0], (String) row[1],
+                        Arrays.copyOfRange(row, 2, row.length, String[].class)))
+                .toList());
+    }
+
+    private static Map<Key, Entry> analyze(List<SearchDocument> documents) {
+        Map<Key, Entry> entries = new HashMap<>();
+        for (SearchDocument document : documents) {
+            entries.put(new Key(document.type(), document.id()), analyze(document));
+        }
+        return entries;
+    }
+
+    private static Entry analyze(SearchDocument document) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(document.name()).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        for (String text : document.texts()) {
+            tokenize(text).forEach(term -> weights.merge(term, TEXT_WEIGHT, Integer::sum));
+        }
+        return new Entry(document.name(), weights);
+    }
+
+    private static void addPostings(TreeMap<String, Map<Key, Integer>> postings, Key key, Entry entry) {
+        entry.weights().forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(key, weight));
+    }
+
+    private void removePostings(Key key, Entry entry) {
+        for (String term : entry.weights().keySet()) {
+            Map<Key, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(key);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private record Key(SearchType type, int id) {
+    }
+
+    private record Entry(String name, Map<String, Integer> weights) {
+    }
+}
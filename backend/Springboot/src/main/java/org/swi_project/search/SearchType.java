@@ -0,0 +1,29 @@
+package org.swi_project.search;
+
+import org.swi_project.exception.BadRequestException;
+
+/**
+ * Entity types covered by the search index, named like their API paths.
+ */
+public enum SearchType {
+    ITEMS("items"), SPELLS("spells"), MONSTERS("monsters"), NPCS("npcs");
+
+    private final String path;
+
+    SearchType(String path) {
+        this.path = path;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public static SearchType from(String path) {
+        for (SearchType type : values()) {
+            if (type.path.equalsIgnoreCase(path.trim())) {
+                return type;
+            }
+        }
+        throw new BadRequestException("Unsupported search type: " + path);
+    }
+}
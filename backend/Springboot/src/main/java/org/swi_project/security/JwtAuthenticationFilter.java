@@ -6,13 +6,16 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.swi_project.security.VerifiedTokenCache.VerifiedToken;
 
 import java.io.IOException;
 
@@ -23,6 +26,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService revocationService;
+
+    @Value("${jwt.stateless-auth:true}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(
@@ -39,12 +47,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String username = jwtUtil.extractUsername(jwt);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                VerifiedToken verified = verify(jwt);
+
+                if (verified.username() != null && !revocationService.isRevoked(verified)) {
+                    // Tokens issued without a role claim still need the users table.
+                    UserDetails userDetails = statelessAuth && verified.authorities() != null
+                            ? new User(verified.username(), "", verified.authorities())
+                            : userDetailsService.loadUserByUsername(verified.username());
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -60,4 +72,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Returns the claims of the token, verifying the signature only if the token is not in
+     * the verified-token cache.
+     */
+    private VerifiedToken verify(String jwt) {
+        VerifiedToken verified = verifiedTokenCache.get(jwt);
+        if (verified == null) {
+            verified = jwtUtil.toVerifiedToken(jwtUtil.extractAllClaims(jwt));
+            verifiedTokenCache.put(jwt, verified);
+        }
+        return verified;
+    }
 }
@@ -0,0 +1,74 @@
+package org.swi_project.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.swi_project.exception.TooManyRequestsException;
+import org.swi_project.models.User;
+import org.swi_project.repositories.UserRepository;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Authenticates a login with a single user lookup and runs the BCrypt check on the
+ * bounded login executor, so login storms cannot occupy the request threads. The returned
+ * future completes on the completion executor, so callers may chain database work onto it
+ * without holding a BCrypt thread.
+ */
+@Service
+@Slf4j
+public class LoginService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Executor loginExecutor;
+    private final Executor completionExecutor;
+    private final long retryAfterSeconds;
+
+    // Checked against unknown usernames so they take as long as a real password check.
+    private final String dummyHash;
+
+    public LoginService(UserRepository userRepository,
+                        PasswordEncoder passwordEncoder,
+                        @Qualifier("loginExecutor") Executor loginExecutor,
+                        @Qualifier("loginCompletionExecutor") Executor completionExecutor,
+                        @Value("${auth.login.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.loginExecutor = loginExecutor;
+        this.completionExecutor = completionExecutor;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.dummyHash = passwordEncoder.encode("dummy-password");
+    }
+
+    public CompletableFuture<User> authenticate(String username, String password) {
+        Optional<User> found = userRepository.findByUsername(username);
+        String hash = found.map(User::getPassword).orElse(dummyHash);
+
+        CompletableFuture<Boolean> matches;
+        try {
+            matches = CompletableFuture.supplyAsync(() -> passwordEncoder.matches(password, hash), loginExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Login queue full, rejecting login for user: {}", username);
+            throw new TooManyRequestsException("Too many login attempts, try again later", retryAfterSeconds);
+        }
+
+        return matches.thenApplyAsync(valid -> {
+            if (!valid || found.isEmpty()) {
+                throw new BadCredentialsException("Invalid username or password");
+            }
+            User user = found.get();
+            if (!user.isEnabled()) {
+                throw new DisabledException("Account is disabled");
+            }
+            return user;
+        }, completionExecutor);
+    }
+}
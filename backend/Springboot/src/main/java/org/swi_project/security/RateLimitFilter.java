@@ -0,0 +1,146 @@
+package org.swi_project.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token-bucket rate limiting for the API. Clients are identified by their
+ * JWT subject when authenticated and by remote address otherwise; each route group
+ * (auth, reads, writes) has its own policy and its own bucket per client.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum RouteGroup {
+        AUTH, READ, WRITE
+    }
+
+    record Policy(int capacity, int refillPerMinute) {
+    }
+
+    private final boolean enabled;
+    private final Map<RouteGroup, Policy> policies = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejectedCounters = new EnumMap<>(RouteGroup.class);
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final long idleEvictionNanos;
+    private final AtomicLong nextSweep;
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.auth.capacity:10}") int authCapacity,
+                           @Value("${rate-limit.auth.refill-per-minute:10}") int authRefill,
+                           @Value("${rate-limit.read.capacity:120}") int readCapacity,
+                           @Value("${rate-limit.read.refill-per-minute:600}") int readRefill,
+                           @Value("${rate-limit.write.capacity:30}") int writeCapacity,
+                           @Value("${rate-limit.write.refill-per-minute:120}") int writeRefill,
+                           @Value("${rate-limit.idle-eviction-seconds:600}") long idleEvictionSeconds) {
+        this.enabled = enabled;
+        policies.put(RouteGroup.AUTH, new Policy(authCapacity, authRefill));
+        policies.put(RouteGroup.READ, new Policy(readCapacity, readRefill));
+        policies.put(RouteGroup.WRITE, new Policy(writeCapacity, writeRefill));
+        for (RouteGroup group : RouteGroup.values()) {
+            rejectedCounters.put(group, Counter.builder("ratelimit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("group", group.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.idleEvictionNanos = TimeUnit.SECONDS.toNanos(idleEvictionSeconds);
+        this.nextSweep = new AtomicLong(System.nanoTime() + idleEvictionNanos);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RouteGroup group = enabled ? resolveGroup(request) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        Policy policy = policies.get(group);
+        String key = group.name() + ":" + resolveClient(request, group);
+        TokenBucket.Probe probe = buckets
+                .computeIfAbsent(key, k -> new TokenBucket(policy.capacity(), policy.refillPerMinute(), now))
+                .tryConsume(now);
+        evictIdleBuckets(now);
+
+        response.setHeader("RateLimit-Limit", String.valueOf(probe.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(probe.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(probe.resetSeconds()));
+
+        if (!probe.allowed()) {
+            rejectedCounters.get(group).increment();
+            log.warn("Rate limit exceeded for {}", key);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(probe.retryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private RouteGroup resolveGroup(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/") || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return null;
+        }
+        if (path.startsWith("/api/auth/")) {
+            return RouteGroup.AUTH;
+        }
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+            return RouteGroup.READ;
+        }
+        return RouteGroup.WRITE;
+    }
+
+    private String resolveClient(HttpServletRequest request, RouteGroup group) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (group != RouteGroup.AUTH && authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Drops buckets that have not been used for the idle period. Runs at most once per
+     * period, on whichever request thread wins the race to claim the sweep.
+     */
+    private void evictIdleBuckets(long now) {
+        long scheduled = nextSweep.get();
+        if (now - scheduled < 0 || !nextSweep.compareAndSet(scheduled, now + idleEvictionNanos)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> now - bucket.getLastAccess() > idleEvictionNanos);
+    }
+}
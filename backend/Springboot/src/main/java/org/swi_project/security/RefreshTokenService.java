@@ -0,0 +1,121 @@
+package org.swi_project.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.swi_project.models.RefreshToken;
+import org.swi_project.models.User;
+import org.swi_project.repositories.RefreshTokenRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues and rotates opaque refresh tokens. Only a SHA-256 hash of each token is stored.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long refreshExpirationMillis;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration}") long refreshExpirationMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpirationMillis = refreshExpirationMillis;
+    }
+
+    @Transactional
+    public String issue(User user) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(Instant.now().plusMillis(refreshExpirationMillis));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    /**
+     * Exchanges a refresh token for a new one. Presenting an already revoked token is
+     * treated as theft and revokes every refresh token of the user. The token is revoked
+     * with a conditional update, so of two concurrent refreshes with the same token only
+     * one succeeds and the other counts as reuse.
+     */
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public Rotation rotate(String token) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        User user = current.getUser();
+
+        if (current.isRevoked()) {
+            throw reuse(user);
+        }
+        if (current.getExpiresAt().isBefore(Instant.now())) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+        if (!user.isEnabled()) {
+            throw new DisabledException("Account is disabled");
+        }
+
+        if (refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            throw reuse(user);
+        }
+        return new Rotation(user, issue(user));
+    }
+
+    private BadCredentialsException reuse(User user) {
+        log.warn("Reuse of revoked refresh token for user: {}", user.getUsername());
+        refreshTokenRepository.revokeAllByUser(user);
+        return new BadCredentialsException("Invalid refresh token");
+    }
+
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(refreshToken -> refreshToken.setRevoked(true));
+    }
+
+    @Transactional
+    public void revokeAll(User user) {
+        refreshTokenRepository.revokeAllByUser(user);
+    }
+
+    /**
+     * Every refresh stores a new row, so rows past their expiry are deleted periodically.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
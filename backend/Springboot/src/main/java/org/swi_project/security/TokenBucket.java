@@ -0,0 +1,66 @@
+package org.swi_project.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The token count and refill timestamp are swapped together
+ * with a single compare-and-set, so concurrent requests never block each other.
+ */
+class TokenBucket {
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+    private volatile long lastAccess;
+
+    TokenBucket(int capacity, int refillPerMinute, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.state = new AtomicReference<>(new State(capacity, now));
+        this.lastAccess = now;
+    }
+
+    Probe tryConsume(long now) {
+        while (true) {
+            State current = state.get();
+            long refilledAt = Math.max(now, current.refilledAt());
+            double available = Math.min(capacity,
+                    current.tokens() + (refilledAt - current.refilledAt()) * tokensPerNano);
+            boolean allowed = available >= 1;
+            State next = new State(allowed ? available - 1 : available, refilledAt);
+
+            if (state.compareAndSet(current, next)) {
+                lastAccess = now;
+                return new Probe(
+                        allowed,
+                        capacity,
+                        (long) Math.floor(next.tokens()),
+                        secondsUntil(1 - next.tokens()),
+                        secondsUntil(capacity - next.tokens())
+                );
+            }
+        }
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    private long secondsUntil(double missingTokens) {
+        if (missingTokens <= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(missingTokens / tokensPerNano / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    /**
+     * Outcome of a consume attempt: whether it was allowed, the remaining quota and
+     * the seconds until the next token (retryAfter) and until the bucket is full (reset).
+     */
+    record Probe(boolean allowed, int limit, long remaining, long retryAfterSeconds, long resetSeconds) {
+    }
+}
@@ -0,0 +1,153 @@
+package org.swi_project.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.swi_project.models.RevokedToken;
+import org.swi_project.repositories.RevokedTokenRepository;
+import org.swi_project.security.VerifiedTokenCache.VerifiedToken;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation list for access tokens. Lookups go through a Bloom filter first,
+ * so the common case of a non-revoked token costs a few hash probes and no DB access;
+ * possible hits are confirmed against the exact maps. Revocations are persisted so the
+ * list survives a restart, and entries are dropped once the tokens they cover expire.
+ * Every instance reloads the persisted list every {@code jwt.revocation.reload-ms}, so a
+ * token revoked on one instance is rejected by the others after at most that delay.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long accessTokenLifetimeMillis;
+    private final int expectedEntries;
+
+    private final Map<String, Instant> revokedTokenIds = new ConcurrentHashMap<>();
+    private final Map<String, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${jwt.expiration}") long accessTokenLifetimeMillis,
+                                  @Value("${jwt.revocation.expected-entries:10000}") int expectedEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.accessTokenLifetimeMillis = accessTokenLifetimeMillis;
+        this.expectedEntries = expectedEntries;
+        this.bloomFilter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    }
+
+    @PostConstruct
+    synchronized void load() {
+        revokedTokenRepository.deleteExpired(Instant.now());
+        reload();
+        log.info("Loaded {} token revocations", revokedTokenIds.size() + revokedUsers.size());
+    }
+
+    /**
+     * Merges in the revocations persisted by other instances. Only unexpired rows are
+     * read, which is at most one access token lifetime's worth of revocations.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.reload-ms:10000}",
+            fixedDelayString = "${jwt.revocation.reload-ms:10000}")
+    public synchronized void reload() {
+        Instant now = Instant.now();
+        for (RevokedToken revoked : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            remember(revoked);
+        }
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        revokedUsers.values().removeIf(revocation -> revocation.expiresAt().isBefore(now));
+        rebuildBloomFilter();
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        BloomFilter filter = bloomFilter;
+        if (token.tokenId() != null && filter.mightContain(tokenKey(token.tokenId()))
+                && revokedTokenIds.containsKey(token.tokenId())) {
+            return true;
+        }
+        if (filter.mightContain(userKey(token.username()))) {
+            UserRevocation revocation = revokedUsers.get(token.username());
+            return revocation != null && token.version() < revocation.minVersion();
+        }
+        return false;
+    }
+
+    /**
+     * Revokes a single access token until its own expiration.
+     */
+    public synchronized void revokeToken(String tokenId, String username, Instant expiresAt) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.setTokenId(tokenId);
+        revoked.setUsername(username);
+        revoked.setExpiresAt(expiresAt);
+        revokedTokenRepository.save(revoked);
+
+        remember(revoked);
+        bloomFilter.add(tokenKey(tokenId));
+        pruneExpired();
+    }
+
+    /**
+     * Revokes every access token of the user issued with an account version lower than
+     * {@code minVersion}. Kept for one access token lifetime, after which those tokens
+     * are expired anyway.
+     */
+    public synchronized void revokeUser(String username, int minVersion) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.setUsername(username);
+        revoked.setMinVersion(minVersion);
+        revoked.setExpiresAt(Instant.now().plusMillis(accessTokenLifetimeMillis));
+        revokedTokenRepository.save(revoked);
+
+        remember(revoked);
+        bloomFilter.add(userKey(username));
+        pruneExpired();
+    }
+
+    private void remember(RevokedToken revoked) {
+        if (revoked.getTokenId() != null) {
+            revokedTokenIds.put(revoked.getTokenId(), revoked.getExpiresAt());
+        } else if (revoked.getMinVersion() != null) {
+            revokedUsers.merge(revoked.getUsername(),
+                    new UserRevocation(revoked.getMinVersion(), revoked.getExpiresAt()),
+                    (a, b) -> a.minVersion() >= b.minVersion() ? a : b);
+        }
+    }
+
+    // A Bloom filter cannot forget keys, so it is rebuilt whenever expired entries are removed.
+    private void pruneExpired() {
+        Instant now = Instant.now();
+        boolean removed = revokedTokenIds.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        removed |= revokedUsers.values().removeIf(revocation -> revocation.expiresAt().isBefore(now));
+        if (removed) {
+            rebuildBloomFilter();
+        }
+    }
+
+    private void rebuildBloomFilter() {
+        int size = revokedTokenIds.size() + revokedUsers.size();
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, size * 2), FALSE_POSITIVE_RATE);
+        revokedTokenIds.keySet().forEach(tokenId -> rebuilt.add(tokenKey(tokenId)));
+        revokedUsers.keySet().forEach(username -> rebuilt.add(userKey(username)));
+        bloomFilter = rebuilt;
+    }
+
+    private static String tokenKey(String tokenId) {
+        return "jti:" + tokenId;
+    }
+
+    private static String userKey(String username) {
+        return "user:" + username;
+    }
+
+    private record UserRevocation(int minVersion, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,85 @@
+package org.swi_project.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, read on every
+ * authenticated request without taking a lock. Entries are dropped once the token itself
+ * expires. When the cache is full, one writer sweeps out expired tokens and, if live ones
+ * still fill it, drops arbitrary entries down to {@code maxSize * 9 / 10}; a dropped
+ * token is simply verified again on its next use.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public VerifiedToken get(String token) {
+        VerifiedToken cached = entries.get(token);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(token, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        entries.put(token, verified);
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(verified -> verified.expiresAt() <= now);
+            Iterator<String> tokens = entries.keySet().iterator();
+            while (entries.size() > maxSize * 9L / 10 && tokens.hasNext()) {
+                tokens.next();
+                tokens.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Claims of a verified token. {@code authorities} is null for tokens issued without
+     * a role claim, which have to be resolved against the users table.
+     */
+    public record VerifiedToken(String username,
+                                Collection<? extends GrantedAuthority> authorities,
+                                String tokenId,
+                                int version,
+                                long expiresAt) {
+    }
+}
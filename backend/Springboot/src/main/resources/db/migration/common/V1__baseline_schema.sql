@@ -0,0 +1,226 @@
+-- Schema as previously derived by Hibernate (ddl-auto=update); existing databases are baselined at this version.
+
+create table characterclass (
+    default_spell_usage integer not null,
+    default_armor varchar(25) not null,
+    default_weapon varchar(25) not null,
+    name varchar(25) not null,
+    primary key (name)
+);
+
+create table charitems (
+    character_id integer not null,
+    item_id integer not null
+);
+
+create table charquest (
+    character_id integer not null,
+    quest_id integer not null
+);
+
+create table charspells (
+    character_id integer not null,
+    spell_id integer not null
+);
+
+create table game_character (
+    charisma integer not null,
+    constitution integer not null,
+    currenthp integer not null,
+    dexterity integer not null,
+    id integer not null auto_increment,
+    intelligence integer not null,
+    level integer not null,
+    maxhp integer not null,
+    strength integer not null,
+    wisdom integer not null,
+    character_class_name varchar(25) not null,
+    name varchar(25) not null,
+    race_name varchar(25) not null,
+    specialization varchar(25) not null,
+    status varchar(25) not null,
+    alignment varchar(200) not null,
+    background varchar(200) not null,
+    notes varchar(2000) not null,
+    primary key (id)
+);
+
+create table item (
+    armor_class integer not null,
+    equip_state bit not null,
+    gold_value integer not null,
+    id integer not null auto_increment,
+    magic bit not null,
+    weight integer not null,
+    name varchar(25) not null,
+    type varchar(25) not null,
+    damage_roll varchar(50),
+    damage_type varchar(50) not null,
+    magical_properties varchar(50) not null,
+    description varchar(200) not null,
+    primary key (id)
+);
+
+create table location (
+    id integer not null auto_increment,
+    name varchar(25) not null,
+    description varchar(200) not null,
+    primary key (id)
+);
+
+create table lootdropped (
+    item_id integer not null,
+    monster_id integer not null
+);
+
+create table monster (
+    attack integer not null,
+    boss bit not null,
+    defense integer not null,
+    health integer not null,
+    id integer not null auto_increment,
+    name varchar(25) not null,
+    type varchar(25) not null,
+    abilities varchar(200) not null,
+    description varchar(200) not null,
+    primary key (id)
+);
+
+create table monstersinlocation (
+    id integer not null auto_increment,
+    location_id integer not null,
+    monster_id integer not null,
+    quantity integer not null,
+    primary key (id)
+);
+
+create table npc (
+    hostility bit not null,
+    id integer not null auto_increment,
+    location_id integer,
+    name varchar(25) not null,
+    role varchar(25) not null,
+    description varchar(200) not null,
+    primary key (id)
+);
+
+create table ownedmonsterbychar (
+    character_id integer not null,
+    monster_id integer not null
+);
+
+create table quest (
+    completion bit not null,
+    id integer not null auto_increment,
+    title varchar(25) not null,
+    type varchar(25) not null,
+    description varchar(200) not null,
+    primary key (id)
+);
+
+create table race (
+    base_speed integer not null,
+    name varchar(25) not null,
+    ability_bonus varchar(200) not null,
+    primary key (name)
+);
+
+create table spell (
+    id integer not null auto_increment,
+    level integer not null,
+    name varchar(25) not null,
+    type varchar(25) not null,
+    description varchar(200) not null,
+    primary key (id)
+);
+
+create table users (
+    enabled bit not null,
+    id bigint not null auto_increment,
+    username varchar(50) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    role enum ('ADMIN','USER') not null,
+    primary key (id)
+);
+
+alter table users
+    add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table users
+    add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table charitems
+    add constraint FKq91k881obm536tuqspk53g0qx
+    foreign key (item_id)
+    references item (id);
+
+alter table charitems
+    add constraint FK300ecfnnq5i04fexgpqyclhik
+    foreign key (character_id)
+    references game_character (id);
+
+alter table charquest
+    add constraint FK5ex27fbp4lbcwvchxdw53ioh7
+    foreign key (quest_id)
+    references quest (id);
+
+alter table charquest
+    add constraint FK36twto6a4d5tg9v8qbyuhl8sw
+    foreign key (character_id)
+    references game_character (id);
+
+alter table charspells
+    add constraint FKjt4nuewg03gkmf4txwacr76h0
+    foreign key (spell_id)
+    references spell (id);
+
+alter table charspells
+    add constraint FKou32hikox0sw6pcpnefyvd44g
+    foreign key (character_id)
+    references game_character (id);
+
+alter table game_character
+    add constraint FKdvkxibfrnb9t1vv3etujmoex0
+    foreign key (character_class_name)
+    references characterclass (name);
+
+alter table game_character
+    add constraint FKryf817kgmg3xyx27v2xr6vvcx
+    foreign key (race_name)
+    references race (name);
+
+alter table lootdropped
+    add constraint FKdt0lixl90f2jcsgw2nqt4olhu
+    foreign key (item_id)
+    references item (id);
+
+alter table lootdropped
+    add constraint FKfm56jp38v91q2txobiqsmxeks
+    foreign key (monster_id)
+    references monster (id);
+
+alter table monstersinlocation
+    add constraint FKfmx3nfy2yocf40ju9uchc1q18
+    foreign key (location_id)
+    references location (id);
+
+alter table monstersinlocation
+    add constraint FKbq47exqjlt0h7mh996kntdl2o
+    foreign key (monster_id)
+    references monster (id);
+
+alter table npc
+    add constraint FKfdcvvhlyc8tum2ysdhkhfecqx
+    foreign key (location_id)
+    references location (id);
+
+alter table ownedmonsterbychar
+    add constraint FKsqkklakon0mh6wri02j7nalgh
+    foreign key (monster_id)
+    references monster (id);
+
+alter table ownedmonsterbychar
+    add constraint FK8s0inhjnedmjlnt0igusarqx2
+    foreign key (character_id)
+    references game_character (id);
@@ -0,0 +1,28 @@
+alter table users
+    add column token_version integer default 0 not null;
+
+create table refresh_token (
+    revoked bit not null,
+    expires_at datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    token_hash varchar(64) not null,
+    primary key (id)
+);
+
+create table revoked_token (
+    min_version integer,
+    expires_at datetime(6) not null,
+    id bigint not null auto_increment,
+    token_id varchar(36),
+    username varchar(50) not null,
+    primary key (id)
+);
+
+alter table refresh_token
+    add constraint UKkdj16cltjxdksuyiosdhliveg unique (token_hash);
+
+alter table refresh_token
+    add constraint FKjtx87i0jvq2svedphegvdwcuy
+    foreign key (user_id)
+    references users (id);
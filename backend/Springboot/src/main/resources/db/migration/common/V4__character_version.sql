@@ -0,0 +1,2 @@
+alter table game_character
+    add column version bigint default 0 not null;
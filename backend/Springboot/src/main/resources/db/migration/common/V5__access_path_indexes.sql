@@ -0,0 +1,133 @@
+-- Join tables were mapped as lists and may hold duplicate links; keep one of each before keying them.
+-- The primary key serves lookups from the owning side, the second index the reverse direction.
+
+create table charitems_distinct (
+    character_id integer not null,
+    item_id integer not null
+);
+insert into charitems_distinct select distinct character_id, item_id from charitems;
+delete from charitems;
+insert into charitems (character_id, item_id) select character_id, item_id from charitems_distinct;
+drop table charitems_distinct;
+
+alter table charitems
+    add primary key (character_id, item_id);
+
+create index idx_charitems_item
+    on charitems (item_id, character_id);
+
+create table charspells_distinct (
+    character_id integer not null,
+    spell_id integer not null
+);
+insert into charspells_distinct select distinct character_id, spell_id from charspells;
+delete from charspells;
+insert into charspells (character_id, spell_id) select character_id, spell_id from charspells_distinct;
+drop table charspells_distinct;
+
+alter table charspells
+    add primary key (character_id, spell_id);
+
+create index idx_charspells_spell
+    on charspells (spell_id, character_id);
+
+create table charquest_distinct (
+    character_id integer not null,
+    quest_id integer not null
+);
+insert into charquest_distinct select distinct character_id, quest_id from charquest;
+delete from charquest;
+insert into charquest (character_id, quest_id) select character_id, quest_id from charquest_distinct;
+drop table charquest_distinct;
+
+alter table charquest
+    add primary key (character_id, quest_id);
+
+create index idx_charquest_quest
+    on charquest (quest_id, character_id);
+
+create table ownedmonsterbychar_distinct (
+    character_id integer not null,
+    monster_id integer not null
+);
+insert into ownedmonsterbychar_distinct select distinct character_id, monster_id from ownedmonsterbychar;
+delete from ownedmonsterbychar;
+insert into ownedmonsterbychar (character_id, monster_id) select character_id, monster_id from ownedmonsterbychar_distinct;
+drop table ownedmonsterbychar_distinct;
+
+alter table ownedmonsterbychar
+    add primary key (character_id, monster_id);
+
+create index idx_ownedmonsterbychar_monster
+    on ownedmonsterbychar (monster_id, character_id);
+
+create table lootdropped_distinct (
+    monster_id integer not null,
+    item_id integer not null
+);
+insert into lootdropped_distinct select distinct monster_id, item_id from lootdropped;
+delete from lootdropped;
+insert into lootdropped (monster_id, item_id) select monster_id, item_id from lootdropped_distinct;
+drop table lootdropped_distinct;
+
+alter table lootdropped
+    add primary key (monster_id, item_id);
+
+create index idx_lootdropped_item
+    on lootdropped (item_id, monster_id);
+
+-- Placements are loaded per location and per monster, and deleted per location.
+create index idx_monstersinlocation_location
+    on monstersinlocation (location_id, monster_id);
+
+create index idx_monstersinlocation_monster
+    on monstersinlocation (monster_id);
+
+-- NPCs by location (also backs the foreign key), role and hostility.
+create index idx_npc_location_role
+    on npc (location_id, role);
+
+create index idx_npc_role
+    on npc (role);
+
+create index idx_npc_hostility
+    on npc (hostility);
+
+-- Catalog list filters and finders.
+create index idx_item_type_gold
+    on item (type, gold_value);
+
+create index idx_item_magic_gold
+    on item (magic, gold_value);
+
+create index idx_spell_type_level
+    on spell (type, level);
+
+create index idx_spell_level
+    on spell (level);
+
+create index idx_monster_type_health
+    on monster (type, health);
+
+create index idx_monster_boss
+    on monster (boss);
+
+create index idx_quest_type_completion
+    on quest (type, completion);
+
+create index idx_quest_completion
+    on quest (completion);
+
+-- Bulk character updates select by status and level.
+create index idx_character_status_level
+    on game_character (status, level);
+
+-- Token cleanup and per-user revocation.
+create index idx_refresh_token_user
+    on refresh_token (user_id, revoked);
+
+create index idx_refresh_token_expires
+    on refresh_token (expires_at);
+
+create index idx_revoked_token_expires
+    on revoked_token (expires_at);
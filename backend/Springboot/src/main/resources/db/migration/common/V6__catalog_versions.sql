@@ -0,0 +1,14 @@
+alter table item
+    add column version bigint default 0 not null;
+
+alter table spell
+    add column version bigint default 0 not null;
+
+alter table monster
+    add column version bigint default 0 not null;
+
+alter table quest
+    add column version bigint default 0 not null;
+
+alter table npc
+    add column version bigint default 0 not null;
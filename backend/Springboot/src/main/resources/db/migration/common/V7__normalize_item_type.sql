@@ -0,0 +1,3 @@
+update item
+    set type = upper(type)
+    where type <> upper(type);
@@ -0,0 +1,12 @@
+create table resource_version (
+    resource varchar(20) not null,
+    version bigint not null,
+    primary key (resource)
+);
+
+insert into resource_version (resource, version) values
+    ('characters', 0),
+    ('items', 0),
+    ('spells', 0),
+    ('monsters', 0),
+    ('quests', 0);
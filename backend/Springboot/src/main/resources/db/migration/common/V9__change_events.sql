@@ -0,0 +1,14 @@
+create table change_event (
+    id bigint not null,
+    type varchar(20) not null,
+    data text not null,
+    primary key (id)
+);
+
+create table change_sequence (
+    id integer not null,
+    last_id bigint not null,
+    primary key (id)
+);
+
+insert into change_sequence (id, last_id) values (1, 0);
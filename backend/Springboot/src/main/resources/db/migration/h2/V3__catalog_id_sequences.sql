@@ -0,0 +1,4 @@
+create sequence item_seq start with 1 increment by 50;
+create sequence spell_seq start with 1 increment by 50;
+create sequence monster_seq start with 1 increment by 50;
+create sequence npc_seq start with 1 increment by 50;
@@ -0,0 +1,20 @@
+-- Hibernate emulates the catalog id sequences with single-row tables on MySQL.
+create table item_seq (
+    next_val bigint
+);
+insert into item_seq select coalesce(max(id), 0) + 1 from item;
+
+create table spell_seq (
+    next_val bigint
+);
+insert into spell_seq select coalesce(max(id), 0) + 1 from spell;
+
+create table monster_seq (
+    next_val bigint
+);
+insert into monster_seq select coalesce(max(id), 0) + 1 from monster;
+
+create table npc_seq (
+    next_val bigint
+);
+insert into npc_seq select coalesce(max(id), 0) + 1 from npc;
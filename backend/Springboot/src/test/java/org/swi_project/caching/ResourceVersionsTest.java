@@ -0,0 +1,103 @@
+package org.swi_project.caching;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs outside a test transaction so bumps commit like they do behind the controllers.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(ResourceVersions.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ResourceVersionsTest {
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testAnswersMatchingTagWithNotModified() {
+        String etag = resourceVersions.etag(ResourceVersions.ITEMS);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean notModified = resourceVersions.checkNotModified(
+                new ServletWebRequest(request, response), ResourceVersions.ITEMS);
+
+        assertThat(notModified).isTrue();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader("ETag")).isEqualTo(etag);
+        assertThat(response.getHeader("Cache-Control")).contains("no-cache");
+        assertThat(response.getHeaders("Vary")).containsExactly("Accept");
+    }
+
+    @Test
+    void testBumpInvalidatesOnlyDependentTags() {
+        String items = resourceVersions.etag(ResourceVersions.ITEMS);
+        String characters = resourceVersions.etag(ResourceVersions.CHARACTERS, ResourceVersions.ITEMS);
+        String spells = resourceVersions.etag(ResourceVersions.SPELLS);
+
+        resourceVersions.bump(ResourceVersions.ITEMS);
+
+        assertThat(resourceVersions.etag(ResourceVersions.ITEMS)).isNotEqualTo(items);
+        assertThat(resourceVersions.etag(ResourceVersions.CHARACTERS, ResourceVersions.ITEMS)).isNotEqualTo(characters);
+        assertThat(resourceVersions.etag(ResourceVersions.SPELLS)).isEqualTo(spells);
+    }
+
+    @Test
+    void testBumpCommitsWithTheWrite() {
+        String before = resourceVersions.etag(ResourceVersions.QUESTS);
+        AtomicReference<String> duringWrite = new AtomicReference<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            resourceVersions.bump(ResourceVersions.QUESTS);
+            duringWrite.set(resourceVersions.etag(ResourceVersions.QUESTS));
+        });
+        assertThat(duringWrite.get()).isEqualTo(before);
+        String committed = resourceVersions.etag(ResourceVersions.QUESTS);
+        assertThat(committed).isNotEqualTo(before);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            resourceVersions.bump(ResourceVersions.QUESTS);
+            status.setRollbackOnly();
+        });
+        assertThat(resourceVersions.etag(ResourceVersions.QUESTS)).isEqualTo(committed);
+    }
+
+    @Test
+    void testInstancesShareVersions() {
+        ResourceVersions other = new ResourceVersions(entityManager, transactionManager);
+        String etag = other.etag(ResourceVersions.MONSTERS);
+        assertThat(resourceVersions.etag(ResourceVersions.MONSTERS)).isEqualTo(etag);
+
+        resourceVersions.bump(ResourceVersions.MONSTERS);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/monsters");
+        request.addHeader("If-None-Match", etag);
+        assertThat(other.checkNotModified(new ServletWebRequest(request, new MockHttpServletResponse()),
+                ResourceVersions.MONSTERS)).isFalse();
+    }
+}
@@ -0,0 +1,150 @@
+package org.swi_project.catalog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.models.Character;
+import org.swi_project.models.CharacterClass;
+import org.swi_project.models.Item;
+import org.swi_project.models.Race;
+import org.swi_project.reference.ReferenceDataRegistry;
+import org.swi_project.repositories.CharacterClassRepository;
+import org.swi_project.repositories.CharacterRepository;
+import org.swi_project.repositories.ItemRepository;
+import org.swi_project.repositories.RaceRepository;
+import org.swi_project.search.SearchIndex;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs outside a test transaction because export and restore open their own.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({CampaignArchiveService.class, IdSequenceSeeder.class, ReferenceDataRegistry.class, ResourceVersions.class,
+        SearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CampaignArchiveServiceTest {
+
+    @Autowired
+    private CampaignArchiveService campaignArchiveService;
+
+    @Autowired
+    private CharacterRepository characterRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private CharacterClassRepository characterClassRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int characterId;
+    private int itemId;
+
+    @BeforeEach
+    void setUp() {
+        itemId = itemRepository.save(item("Lantern")).getId();
+        Character character = new Character();
+        character.setName("Archivist");
+        character.setRace(raceRepository.save(Race.GNOME));
+        character.setCharacterClass(characterClassRepository.save(CharacterClass.CLERIC));
+        character.setMaxHp(10);
+        character.setStrength(10);
+        character.setDexterity(10);
+        character.setConstitution(10);
+        character.setIntelligence(10);
+        character.setWisdom(10);
+        character.setCharisma(10);
+        character.setStatus("ALIVE");
+        character.setBackground("");
+        character.setAlignment("");
+        character.setSpecialization("");
+        character.setNotes("");
+        character.addItem(itemRepository.findById(itemId).orElseThrow());
+        characterId = characterRepository.save(character).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<String> tables = new ArrayList<>(CampaignArchiveService.TABLES.values());
+        for (int i = tables.size() - 1; i >= 0; i--) {
+            jdbcTemplate.update("DELETE FROM " + tables.get(i));
+        }
+    }
+
+    @Test
+    void testCampaignRoundTripKeepsIdsAndLinks() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        campaignArchiveService.exportCampaign(out);
+        String archive = out.toString(StandardCharsets.UTF_8);
+        assertThat(archive.lines()).hasSize(6).first().asString().contains("\"campaign\"");
+
+        tearDown();
+        Map<String, Integer> restored = campaignArchiveService.restore(
+                new ByteArrayInputStream(archive.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(restored).containsEntry("characters", 1).containsEntry("character-items", 1)
+                .containsEntry("items", 1).containsEntry("spells", 0);
+        List<Integer> itemIds = transactionTemplate.execute(status -> characterRepository.findById(characterId)
+                .orElseThrow().getItems().stream().map(Item::getId).toList());
+        assertThat(itemIds).containsExactly(itemId);
+    }
+
+    @Test
+    void testRestoreRejectsArchiveWithoutHeader() {
+        String rows = "{\"table\": \"items\", \"row\": {\"id\": 1}}\n";
+
+        assertThatThrownBy(() -> campaignArchiveService.restore(
+                new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(itemRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testTableExportWritesOneLinePerRow() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        campaignArchiveService.exportTable("character-items", out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(1);
+        assertThatThrownBy(() -> campaignArchiveService.exportTable("users", out))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static Item item(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setType("MISCELLANEOUS");
+        item.setDescription("");
+        item.setMagicalProperties("");
+        item.setDamageType("");
+        return item;
+    }
+}
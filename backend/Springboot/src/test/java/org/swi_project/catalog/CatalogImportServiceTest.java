@@ -0,0 +1,120 @@
+package org.swi_project.catalog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.catalog.ImportReport.RowError;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.models.Item;
+import org.swi_project.repositories.ItemRepository;
+import org.swi_project.search.SearchDocument;
+import org.swi_project.search.SearchIndex;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Runs outside a test transaction because every chunk commits on its own.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "import.chunk-size=3"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({CatalogImportService.class, ResourceVersions.class, SearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogImportServiceTest {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @MockitoSpyBean
+    private SearchIndex searchIndex;
+
+    @AfterEach
+    void tearDown() {
+        doCallRealMethod().when(searchIndex).put(any());
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void testNdjsonImportReportsRejectedRows() throws Exception {
+        String body = String.join("\n",
+                item("Sword"),
+                item(""),
+                item("Shield"),
+                "{\"name\": \"Bow\", \"type\": \"WEAPON\", \"armorClass\": \"high\"}",
+                item("Ring"),
+                item("Amulet"),
+                item("This name is far too long to fit"),
+                item("Cloak"));
+
+        ImportReport report = catalogImportService.importRows("items", stream(body));
+
+        assertThat(report.imported()).isEqualTo(5);
+        assertThat(report.rejected()).isEqualTo(3);
+        assertThat(report.errors()).extracting(RowError::row).containsExactly(2, 4, 7);
+        assertThat(report.errors().get(0).error()).startsWith("name:");
+        assertThat(itemRepository.findAll()).extracting(Item::getName)
+                .containsExactlyInAnyOrder("Sword", "Shield", "Ring", "Amulet", "Cloak");
+    }
+
+    @Test
+    void testJsonArrayImportIgnoresSuppliedIds() throws Exception {
+        String body = "[" + item("Torch").replace("{", "{\"id\": 9999, ") + ", " + item("Rope") + "]";
+
+        ImportReport report = catalogImportService.importRows("items", stream(body));
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.errors()).isEmpty();
+        assertThat(itemRepository.findById(9999)).isEmpty();
+    }
+
+    @Test
+    void testIndexingFailureKeepsTheCommittedChunk() throws Exception {
+        doThrow(new IllegalStateException("index unavailable")).when(searchIndex)
+                .put(argThat((SearchDocument document) -> document.name().equals("Shield")));
+        String body = String.join("\n", item("Sword"), item("Shield"), item("Ring"), item("Amulet"));
+
+        ImportReport report = catalogImportService.importRows("items", stream(body));
+
+        assertThat(report.imported()).isEqualTo(4);
+        assertThat(report.errors()).isEmpty();
+        assertThat(itemRepository.findAll()).extracting(Item::getName)
+                .containsExactlyInAnyOrder("Sword", "Shield", "Ring", "Amulet");
+    }
+
+    @Test
+    void testUnknownTypeIsRejected() {
+        assertThatThrownBy(() -> catalogImportService.importRows("dragons", stream("[]")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static String item(String name) {
+        return "{\"name\": \"" + name + "\", \"type\": \"MISCELLANEOUS\", \"description\": \"\", "
+                + "\"magicalProperties\": \"\", \"damageType\": \"\"}";
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,148 @@
+package org.swi_project.changes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.models.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs outside a test transaction so events commit like they do behind the controllers.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChangeFeedTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Runnable> pendingSends = new ArrayList<>();
+    private ChangeFeed changeFeed;
+    private String start;
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = newInstance();
+        start = changeFeed.eventId(jdbcTemplate.queryForObject("SELECT last_id FROM change_sequence", Long.class));
+    }
+
+    // Sends are queued but never run, so every subscriber is as slow as it gets.
+    private ChangeFeed newInstance() {
+        return new ChangeFeed(new ObjectMapper(), jdbcTemplate, entityManager, transactionManager, 1000, 2, 3,
+                pendingSends::add);
+    }
+
+    @Test
+    void testPublishesEntityFieldsWithTheCommittedVersion() {
+        Item saved = transactionTemplate.execute(status -> {
+            Item item = item("Rope");
+            entityManager.persist(item);
+            return item;
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Item item = entityManager.find(Item.class, saved.getId());
+            item.setEquipState(true);
+            changeFeed.changed(ResourceVersions.ITEMS, item, "equipState");
+        });
+        changeFeed.poll();
+
+        assertThat(changeFeed.missedSince(start))
+                .extracting(ChangeFeed.Event::data)
+                .containsExactly("{\"type\":\"items\",\"id\":" + saved.getId() + ",\"op\":\"changed\","
+                        + "\"fields\":{\"equipState\":true},\"version\":" + (saved.getVersion() + 1) + "}");
+    }
+
+    @Test
+    void testRolledBackWritesPublishNothing() {
+        transactionTemplate.executeWithoutResult(status -> {
+            changeFeed.deleted(ResourceVersions.QUESTS, 1);
+            status.setRollbackOnly();
+        });
+        changeFeed.poll();
+
+        assertThat(changeFeed.missedSince(start)).isEmpty();
+    }
+
+    @Test
+    void testReplaysOnlyWhatTheHistoryStillHolds() {
+        long first = Long.parseLong(start);
+        for (int id = 1; id <= 5; id++) {
+            changeFeed.deleted(ResourceVersions.QUESTS, id);
+        }
+        changeFeed.poll();
+        changeFeed.prune();
+
+        assertThat(changeFeed.missedSince(changeFeed.eventId(first + 3)))
+                .extracting(ChangeFeed.Event::sequence).containsExactly(first + 4, first + 5);
+        assertThat(changeFeed.missedSince(changeFeed.eventId(first + 2))).hasSize(3);
+        assertThat(changeFeed.missedSince(changeFeed.eventId(first + 5))).isEmpty();
+        assertThat(changeFeed.missedSince(changeFeed.eventId(first + 1))).isNull();
+        assertThat(changeFeed.missedSince(changeFeed.eventId(first + 6))).isNull();
+        assertThat(changeFeed.missedSince("garbage")).isNull();
+    }
+
+    @Test
+    void testDropsSubscribersThatFallBehind() {
+        changeFeed.subscribe(null, null);
+        changeFeed.subscribe(null, Set.of(ResourceVersions.ITEMS));
+
+        changeFeed.changed(ResourceVersions.CHARACTERS, 1, Map.of("currentHp", 10), 2L);
+        changeFeed.changed(ResourceVersions.CHARACTERS, 1, Map.of("currentHp", 12), 3L);
+        changeFeed.poll();
+        assertThat(changeFeed.subscriberCount()).isEqualTo(2);
+
+        changeFeed.changed(ResourceVersions.CHARACTERS, 1, Map.of("currentHp", 14), 4L);
+        changeFeed.poll();
+        assertThat(changeFeed.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testDeliversWritesMadeOnAnotherInstance() {
+        ChangeFeed other = newInstance();
+        other.subscribe(null, Set.of(ResourceVersions.CHARACTERS));
+
+        for (int hp = 10; hp <= 14; hp += 2) {
+            changeFeed.changed(ResourceVersions.CHARACTERS, 1, Map.of("currentHp", hp), (long) hp);
+        }
+        other.poll();
+
+        // Three events for a buffer of two: the subscriber on the other instance received them all.
+        assertThat(other.subscriberCount()).isZero();
+        assertThat(other.missedSince(start)).hasSize(3);
+    }
+
+    private static Item item(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setType("MISCELLANEOUS");
+        item.setDescription("");
+        item.setMagicalProperties("");
+        item.setDamageType("");
+        return item;
+    }
+}
@@ -0,0 +1,116 @@
+package org.swi_project.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.controllers.ItemController;
+import org.swi_project.models.Item;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.patch.MergePatchService;
+import org.swi_project.repositories.ItemRepository;
+import org.swi_project.search.SearchIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class WebConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private KeysetPager keysetPager;
+
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @Mock
+    private MergePatchService mergePatchService;
+
+    private final WebConfig webConfig = new WebConfig();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AbstractJackson2HttpMessageConverter cbor;
+    private AbstractJackson2HttpMessageConverter smile;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> {
+            Item item = invocation.getArgument(0);
+            item.setId(7);
+            return item;
+        });
+
+        cbor = webConfig.cborConverter(builder());
+        smile = webConfig.smileConverter(builder());
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ItemController(itemRepository, keysetPager, resourceVersions, searchIndex,
+                        mergePatchService))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(builder().build()), cbor, smile)
+                .addFilters(new ServerHttpObservationFilter(observationRegistry,
+                        webConfig.serverRequestObservationConvention()))
+                .build();
+    }
+
+    @Test
+    void testRoundTripsCbor() throws Exception {
+        assertRoundTrip(MediaType.parseMediaType("application/cbor"), cbor.getObjectMapper(), "cbor");
+    }
+
+    @Test
+    void testRoundTripsSmile() throws Exception {
+        assertRoundTrip(SMILE, smile.getObjectMapper(), "smile");
+    }
+
+    private void assertRoundTrip(MediaType mediaType, ObjectMapper mapper, String format) throws Exception {
+        Item item = new Item();
+        item.setName("Longsword");
+        item.setType("WEAPON");
+        item.setGoldValue(15);
+
+        byte[] body = mockMvc.perform(post("/api/items")
+                        .contentType(mediaType)
+                        .accept(mediaType)
+                        .content(mapper.writeValueAsBytes(item)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Item created = mapper.readValue(body, Item.class);
+        assertThat(created.getId()).isEqualTo(7);
+        assertThat(created.getName()).isEqualTo("Longsword");
+        assertThat(created.getGoldValue()).isEqualTo(15);
+        assertThat(meterRegistry.get("http.server.requests").tag("format", format).timer().count()).isEqualTo(1);
+    }
+
+    private Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder().modules(webConfig.blackbirdModule());
+    }
+}
@@ -0,0 +1,180 @@
+package org.swi_project.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.exception.ResourceNotFoundException;
+import org.swi_project.models.Location;
+import org.swi_project.models.Monster;
+import org.swi_project.models.MonsterInLocation;
+import org.swi_project.models.NPC;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.search.SearchDocument;
+import org.swi_project.search.SearchIndex;
+import org.swi_project.search.SearchType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({LocationController.class, KeysetPager.class, SearchIndex.class})
+class LocationControllerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LocationController locationController;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Location location;
+    private NPC innkeeper;
+    private NPC smith;
+
+    @BeforeEach
+    void setUp() {
+        location = new Location();
+        location.setName("Harbor");
+        location.setDescription("");
+        entityManager.persist(location);
+        innkeeper = entityManager.persist(npc("Innkeeper", location));
+        smith = entityManager.persist(npc("Smith", location));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testUpdateDetachesDroppedNpcs() {
+        Location update = new Location();
+        update.setName("Harbor");
+        update.setDescription("");
+        update.setNpcs(new ArrayList<>(List.of(reference(innkeeper))));
+
+        locationController.updateLocation(location.getId(), update);
+        entityManager.flush();
+        entityManager.clear();
+
+        NPC dropped = entityManager.find(NPC.class, smith.getId());
+        assertThat(dropped).isNotNull();
+        assertThat(dropped.getLocation()).isNull();
+        assertThat(entityManager.find(NPC.class, innkeeper.getId()).getLocation().getId()).isEqualTo(location.getId());
+    }
+
+    @Test
+    void testUnknownNpcIdIsRejected() {
+        NPC unknown = new NPC();
+        unknown.setId(smith.getId() + 100);
+        Location update = new Location();
+        update.setName("Harbor");
+        update.setDescription("");
+        update.setNpcs(new ArrayList<>(List.of(reference(innkeeper), reference(smith), unknown)));
+
+        assertThatThrownBy(() -> locationController.updateLocation(location.getId(), update))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("NPC not found with id: " + unknown.getId());
+    }
+
+    @Test
+    void testUnknownMonsterIdIsRejected() {
+        Monster unknown = new Monster();
+        unknown.setId(Integer.MAX_VALUE);
+        MonsterInLocation stack = new MonsterInLocation();
+        stack.setMonster(unknown);
+        stack.setQuantity(2);
+        Location update = new Location();
+        update.setName("Harbor");
+        update.setDescription("");
+        update.setNpcs(new ArrayList<>(List.of(reference(innkeeper), reference(smith))));
+        update.setMonstersInLocation(new ArrayList<>(List.of(stack)));
+
+        assertThatThrownBy(() -> locationController.updateLocation(location.getId(), update))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Monster not found with id: " + Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testMergePatchChangesOnlyPresentMembers() throws Exception {
+        Location patched = locationController.patchLocation(location.getId(),
+                objectMapper.readTree("{\"name\": \"Old Harbor\"}")).getBody();
+
+        assertThat(patched.getName()).isEqualTo("Old Harbor");
+        assertThat(patched.getNpcs()).extracting(NPC::getId).containsExactlyInAnyOrder(innkeeper.getId(), smith.getId());
+    }
+
+    @Test
+    void testMergePatchNullEmptiesAList() throws Exception {
+        Location patched = locationController.patchLocation(location.getId(),
+                objectMapper.readTree("{\"npcs\": null}")).getBody();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(patched.getName()).isEqualTo("Harbor");
+        assertThat(patched.getNpcs()).isEmpty();
+        assertThat(entityManager.find(NPC.class, smith.getId()).getLocation()).isNull();
+    }
+
+    @Test
+    void testMergePatchCannotRemoveRequiredMembers() {
+        assertThatThrownBy(() -> locationController.patchLocation(location.getId(),
+                objectMapper.readTree("{\"name\": null}")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("name cannot be null");
+        assertThatThrownBy(() -> locationController.patchLocation(location.getId(),
+                objectMapper.readTree("{\"id\": 5}")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void testDeleteDropsItsNpcsFromTheSearchIndex() {
+        // The index follows commits, so this test commits its transactions.
+        searchIndex.put(SearchDocument.of(innkeeper));
+        searchIndex.put(SearchDocument.of(smith));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        assertThat(searchIndex.search("innkeeper", Set.of(SearchType.NPCS), 10)).hasSize(1);
+
+        TestTransaction.start();
+        locationController.deleteLocation(location.getId());
+        entityManager.flush();
+        assertThat(entityManager.find(NPC.class, smith.getId())).isNull();
+        assertThat(searchIndex.search("smith", Set.of(SearchType.NPCS), 10)).hasSize(1);
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(searchIndex.search("innkeeper", Set.of(SearchType.NPCS), 10)).isEmpty();
+        assertThat(searchIndex.search("smith", Set.of(SearchType.NPCS), 10)).isEmpty();
+    }
+
+    private static NPC reference(NPC npc) {
+        NPC reference = new NPC();
+        reference.setId(npc.getId());
+        return reference;
+    }
+
+    private static NPC npc(String name, Location location) {
+        NPC npc = new NPC();
+        npc.setName(name);
+        npc.setRole("MERCHANT");
+        npc.setDescription("");
+        npc.setLocation(location);
+        return npc;
+    }
+}
@@ -0,0 +1,315 @@
+package org.swi_project.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.changes.ChangeFeed;
+import org.swi_project.config.WebConfig;
+import org.swi_project.inventory.InventoryService;
+import org.swi_project.models.Character;
+import org.swi_project.models.CharacterClass;
+import org.swi_project.models.Item;
+import org.swi_project.models.Location;
+import org.swi_project.models.Monster;
+import org.swi_project.models.MonsterInLocation;
+import org.swi_project.models.NPC;
+import org.swi_project.models.Quest;
+import org.swi_project.models.Race;
+import org.swi_project.models.Spell;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.patch.MergePatchService;
+import org.swi_project.reference.ReferenceDataRegistry;
+import org.swi_project.search.SearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements needed to load each read endpoint, so the budget stays
+ * fixed no matter how many rows are returned. Bodies are serialized detached, as they are
+ * with open-in-view disabled.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({WebConfig.class, CharacterController.class, QuestController.class, MonsterController.class,
+        LocationController.class, KeysetPager.class, ReferenceDataRegistry.class,
+        ResourceVersions.class, InventoryService.class, SearchIndex.class, MergePatchService.class,
+        ChangeFeed.class})
+class QueryBudgetTest {
+
+    private static final int ROWS = 12;
+    private static final MultiValueMap<String, String> NO_FILTER = new LinkedMultiValueMap<>();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CharacterController characterController;
+
+    @Autowired
+    private QuestController questController;
+
+    @Autowired
+    private MonsterController monsterController;
+
+    @Autowired
+    private LocationController locationController;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    private Statistics statistics;
+    private int firstCharacterId;
+    private int firstLocationId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        Race race = entityManager.persist(Race.HUMAN);
+        CharacterClass characterClass = entityManager.persist(CharacterClass.FIGHTER);
+        Location location = null;
+
+        for (int i = 0; i < ROWS; i++) {
+            Item item = entityManager.persist(item("Item " + i));
+            Spell spell = entityManager.persist(spell("Spell " + i));
+
+            Monster monster = monster("Monster " + i);
+            monster.getLoot().add(item);
+            entityManager.persist(monster);
+
+            Quest quest = entityManager.persist(quest("Quest " + i));
+
+            Character character = character("Hero " + i, race, characterClass);
+            character.getItems().add(item);
+            character.getSpells().add(spell);
+            character.getQuests().add(quest);
+            character.getOwnedMonsters().add(monster);
+            entityManager.persist(character);
+
+            if (i % 3 == 0) {
+                location = new Location();
+                location.setName("Location " + i);
+                location.setDescription("");
+                entityManager.persist(location);
+            }
+            MonsterInLocation placement = new MonsterInLocation();
+            placement.setLocation(location);
+            placement.setMonster(monster);
+            placement.setQuantity(1);
+            entityManager.persist(placement);
+            entityManager.persist(npc("NPC " + i, location));
+
+            if (i == 0) {
+                firstCharacterId = character.getId();
+                firstLocationId = location.getId();
+            }
+        }
+        referenceDataRegistry.reload();
+    }
+
+    private long statementsFor(Supplier<ResponseEntity<?>> endpoint) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Object body = endpoint.get().getBody();
+        long statements = statistics.getPrepareStatementCount();
+        // Open-in-view is off: the body is written after the session is gone.
+        entityManager.clear();
+        String json = objectMapper.writeValueAsString(body);
+
+        assertThat(json).isNotBlank().doesNotContain("hibernateLazyInitializer");
+        return statements;
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+
+    @Test
+    void testCharacterListBudget() throws Exception {
+        // page + spells + items + quests + owned monsters + their loot
+        assertThat(statementsFor(() -> characterController.getAllCharacters(null, null, null, "full")))
+                .isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void testCharacterDetailBudget() throws Exception {
+        // ETag versions + character with its collections
+        assertThat(statementsFor(() -> characterController.getCharacter(firstCharacterId, request())))
+                .isLessThanOrEqualTo(7);
+    }
+
+    @Test
+    void testQuestListBudget() throws Exception {
+        // page + participants; their race and class come from the registry
+        assertThat(statementsFor(() -> questController.getAllQuests(null, null, null, "full", NO_FILTER)))
+                .isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testMonsterListBudget() throws Exception {
+        // ETag versions + page + owners + loot
+        assertThat(statementsFor(() -> monsterController.getAllMonsters(null, null, null, "full", NO_FILTER, request())))
+                .isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void testLocationListBudget() throws Exception {
+        // page + placements + NPCs + monsters + their owners and loot
+        assertThat(statementsFor(() -> locationController.getAllLocations(null, null, null, "full")))
+                .isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void testLocationDetailBudget() throws Exception {
+        // location with placements and monsters + NPCs + owners + loot
+        assertThat(statementsFor(() -> locationController.getLocationById(firstLocationId)))
+                .isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void testLocationUpdateWritesOnlyChanges() {
+        entityManager.flush();
+        entityManager.clear();
+        Location stored = locationController.getLocationById(firstLocationId).getBody();
+        List<MonsterInLocation> stacks = stored.getMonstersInLocation();
+        Location update = new Location();
+        update.setName(stored.getName());
+        update.setDescription(stored.getDescription());
+        update.setNpcs(new ArrayList<>(stored.getNpcs()));
+        update.setMonstersInLocation(new ArrayList<>(stacks));
+
+        // location with placements and monsters + its NPCs + monster owners and loot for the response
+        assertThat(updateStatements(update)).isEqualTo(4);
+
+        update.setMonstersInLocation(List.of(
+                stack(stacks.get(0).getMonster(), stacks.get(0).getQuantity()),
+                stack(stacks.get(1).getMonster(), 5),
+                stack(entityManager.persist(monster("Newcomer")), 2)));
+
+        // loads + new monster lookup + one update, one delete and one insert
+        assertThat(updateStatements(update)).isEqualTo(8);
+        assertThat(locationController.getLocationById(firstLocationId).getBody().getMonstersInLocation())
+                .extracting(MonsterInLocation::getQuantity)
+                .containsExactlyInAnyOrder(stacks.get(0).getQuantity(), 5, 2);
+    }
+
+    private long updateStatements(Location update) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        locationController.updateLocation(firstLocationId, update);
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static MonsterInLocation stack(Monster monster, int quantity) {
+        MonsterInLocation stack = new MonsterInLocation();
+        stack.setMonster(monster);
+        stack.setQuantity(quantity);
+        return stack;
+    }
+
+    @Test
+    void testSummaryListsUseOneStatement() throws Exception {
+        assertThat(statementsFor(() -> characterController.getAllCharacters(null, null, null, null))).isEqualTo(1);
+        // plus the ETag version lookup
+        assertThat(statementsFor(() -> monsterController.getAllMonsters(null, null, null, null, NO_FILTER, request())))
+                .isEqualTo(2);
+    }
+
+    private static Character character(String name, Race race, CharacterClass characterClass) {
+        Character character = new Character();
+        character.setName(name);
+        character.setRace(race);
+        character.setCharacterClass(characterClass);
+        character.setMaxHp(10);
+        character.setCurrentHp(10);
+        character.setStrength(10);
+        character.setDexterity(10);
+        character.setConstitution(10);
+        character.setIntelligence(10);
+        character.setWisdom(10);
+        character.setCharisma(10);
+        character.setStatus("ALIVE");
+        character.setBackground("");
+        character.setAlignment("");
+        character.setSpecialization("");
+        character.setNotes("");
+        return character;
+    }
+
+    private static Item item(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setType("MISCELLANEOUS");
+        item.setDescription("");
+        item.setMagicalProperties("");
+        item.setDamageType("");
+        return item;
+    }
+
+    private static Spell spell(String name) {
+        Spell spell = new Spell();
+        spell.setName(name);
+        spell.setDescription("");
+        spell.setType("EVOCATION");
+        return spell;
+    }
+
+    private static Monster monster(String name) {
+        Monster monster = new Monster();
+        monster.setName(name);
+        monster.setDescription("");
+        monster.setAbilities("");
+        monster.setType("BEAST");
+        monster.setHealth(10);
+        return monster;
+    }
+
+    private static Quest quest(String title) {
+        Quest quest = new Quest();
+        quest.setTitle(title);
+        quest.setDescription("");
+        quest.setType("MAIN");
+        return quest;
+    }
+
+    private static NPC npc(String name, Location location) {
+        NPC npc = new NPC();
+        npc.setName(name);
+        npc.setRole("MERCHANT");
+        npc.setDescription("");
+        npc.setLocation(location);
+        return npc;
+    }
+}
@@ -0,0 +1,90 @@
+package org.swi_project.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes between two embedded databases, named after the role they play.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = ReadWriteRoutingDataSource.create(database("primary"), database("replica"));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private String currentDatabase(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseTheReplica() {
+        assertThat(currentDatabase(readOnly)).isEqualToIgnoringCase("replica");
+        assertThat(currentDatabase(readWrite)).isEqualToIgnoringCase("primary");
+        assertThat(jdbcTemplate.queryForObject("select database()", String.class)).isEqualToIgnoringCase("primary");
+    }
+
+    @Test
+    void testPrimaryOnlyOverridesReadOnly() {
+        ReadWriteRoutingDataSource.setPrimaryOnly(true);
+        try {
+            assertThat(currentDatabase(readOnly)).isEqualToIgnoringCase("primary");
+        } finally {
+            ReadWriteRoutingDataSource.setPrimaryOnly(false);
+        }
+        assertThat(currentDatabase(readOnly)).isEqualToIgnoringCase("replica");
+    }
+
+    @Test
+    void testReadsAfterOwnWriteStayOnThePrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(5);
+
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        assertThat(readDuring(filter, new MockHttpServletRequest("POST", "/api/items"), written))
+                .isEqualToIgnoringCase("primary");
+        Cookie marker = written.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(marker).isNotNull();
+        assertThat(marker.getMaxAge()).isEqualTo(5);
+
+        MockHttpServletRequest followUp = new MockHttpServletRequest("GET", "/api/items");
+        followUp.setCookies(marker);
+        assertThat(readDuring(filter, followUp, new MockHttpServletResponse())).isEqualToIgnoringCase("primary");
+
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/api/items");
+        expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1)));
+        assertThat(readDuring(filter, expired, new MockHttpServletResponse())).isEqualToIgnoringCase("replica");
+        assertThat(currentDatabase(readOnly)).isEqualToIgnoringCase("replica");
+    }
+
+    private String readDuring(ReadYourWritesFilter filter, MockHttpServletRequest request,
+                              MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> database = new AtomicReference<>();
+        filter.doFilter(request, response, (req, res) -> database.set(currentDatabase(readOnly)));
+        return database.get();
+    }
+}
@@ -0,0 +1,116 @@
+package org.swi_project.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.swi_project.caching.ResourceVersions;
+import org.swi_project.controllers.ItemController;
+import org.swi_project.exception.GlobalExceptionHandler;
+import org.swi_project.pagination.KeysetPager;
+import org.swi_project.patch.MergePatchService;
+import org.swi_project.search.SearchIndex;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Wires the primary and the replica like production, each behind its own admission limit
+ * but both on the same embedded database, and reads through the whole JPA stack.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({ReplicaAdmissionTest.Databases.class, ItemController.class, KeysetPager.class, ResourceVersions.class,
+        SearchIndex.class, MergePatchService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaAdmissionTest {
+
+    private static final int PERMITS = 4;
+
+    @TestConfiguration
+    static class Databases {
+
+        @Bean
+        AdmissionControlledDataSource primaryDataSource() {
+            return new AdmissionControlledDataSource(database(), "primary", PERMITS, 50);
+        }
+
+        @Bean
+        AdmissionControlledDataSource replicaDataSource() {
+            return new AdmissionControlledDataSource(database(), "replica", PERMITS, 50);
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                              @Qualifier("replicaDataSource") DataSource replica) {
+            return ReadWriteRoutingDataSource.create(primary, replica);
+        }
+
+        private static DataSource database() {
+            return new DriverManagerDataSource("jdbc:h2:mem:admission;DB_CLOSE_DELAY=-1", "sa", "");
+        }
+    }
+
+    @Autowired
+    private ItemController itemController;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private AdmissionControlledDataSource replica;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+        ReflectionTestUtils.setField(exceptionHandler, "databaseRetryAfterSeconds", 1L);
+        mockMvc = MockMvcBuilders.standaloneSetup(itemController)
+                .setControllerAdvice(exceptionHandler)
+                .build();
+    }
+
+    @Test
+    void testReadIsShedWhenTheReplicaIsSaturated() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < PERMITS; i++) {
+                held.add(replica.getConnection());
+            }
+            mockMvc.perform(get("/api/items/1"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.error").value("The service is busy, please try again"));
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        mockMvc.perform(get("/api/items/1"))
+                .andExpect(status().isNotFound());
+    }
+}
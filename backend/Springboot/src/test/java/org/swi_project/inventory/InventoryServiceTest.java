@@ -0,0 +1,192 @@
+package org.swi_project.inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.models.Character;
+import org.swi_project.models.CharacterClass;
+import org.swi_project.models.Item;
+import org.swi_project.models.Race;
+import org.swi_project.repositories.CharacterClassRepository;
+import org.swi_project.repositories.CharacterRepository;
+import org.swi_project.repositories.ItemRepository;
+import org.swi_project.repositories.RaceRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs outside a test transaction so each assignment commits on its own, like it does
+ * behind the controller.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "inventory.max-attempts=10"
+})
+@Import(InventoryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceTest {
+
+    private static final int CONTENDERS = 6;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CharacterRepository characterRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private CharacterClassRepository characterClassRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int characterId;
+    private final List<Integer> weapons = new ArrayList<>();
+    private final List<Integer> rings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Character character = new Character();
+        character.setName("Hoarder");
+        character.setRace(raceRepository.save(Race.DWARF));
+        character.setCharacterClass(characterClassRepository.save(CharacterClass.ROGUE));
+        character.setMaxHp(10);
+        character.setStrength(10);
+        character.setDexterity(10);
+        character.setConstitution(10);
+        character.setIntelligence(10);
+        character.setWisdom(10);
+        character.setCharisma(10);
+        character.setStatus("ALIVE");
+        character.setBackground("");
+        character.setAlignment("");
+        character.setSpecialization("");
+        character.setNotes("");
+        characterId = characterRepository.save(character).getId();
+
+        for (int i = 0; i < CONTENDERS; i++) {
+            weapons.add(itemRepository.save(item("Sword " + i, "WEAPON")).getId());
+            rings.add(itemRepository.save(item("Ring " + i, "RING")).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        characterRepository.deleteAll();
+        itemRepository.deleteAll();
+        raceRepository.deleteAll();
+        characterClassRepository.deleteAll();
+    }
+
+    @Test
+    void testBulkAssignmentIsAllOrNothing() {
+        List<Integer> hoard = List.of(weapons.get(0), rings.get(0), weapons.get(1), weapons.get(2));
+
+        assertThatThrownBy(() -> inventoryService.assignItems(characterId, hoard))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("weapons");
+        assertThat(ownedItemCount()).isZero();
+
+        inventoryService.assignItems(characterId, rings.subList(0, InventoryService.MAX_RINGS));
+        inventoryService.assignItems(characterId, List.of(rings.get(0), weapons.get(0)));
+        assertThat(ownedItemCount()).isEqualTo(InventoryService.MAX_RINGS + 1);
+    }
+
+    @Test
+    void testItemTypesWrittenInAnyCaseCountTowardsTheSlotLimit() {
+        int sword = itemRepository.save(item("Lower Sword", "weapon")).getId();
+        inventoryService.assignItems(characterId, List.of(sword, weapons.get(0)));
+
+        assertThatThrownBy(() -> inventoryService.assignItems(characterId, List.of(weapons.get(1))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("weapons");
+        assertThat(itemRepository.findById(sword).orElseThrow().getType()).isEqualTo("WEAPON");
+    }
+
+    @Test
+    void testConcurrentAssignmentsNeverExceedTheSlotLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (Integer weaponId : weapons) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return inventoryService.assignItems(characterId, List.of(weaponId));
+            }));
+        }
+        start.countDown();
+
+        int assigned = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+                assigned++;
+            } catch (Exception e) {
+                assertThat(e.getCause()).isInstanceOfAny(BadRequestException.class,
+                        OptimisticLockingFailureException.class);
+            }
+        }
+        executor.shutdown();
+
+        assertThat(assigned).isEqualTo(InventoryService.MAX_WEAPONS);
+        assertThat(ownedItemCount()).isEqualTo(InventoryService.MAX_WEAPONS);
+    }
+
+    @Test
+    void testConcurrentAssignmentsOfTheSameItemAllSucceed() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Character>> results = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return inventoryService.assignItems(characterId, List.of(weapons.get(0)));
+            }));
+        }
+        start.countDown();
+
+        for (Future<Character> result : results) {
+            assertThat(result.get().getItems()).extracting(Item::getId).containsExactly(weapons.get(0));
+        }
+        executor.shutdown();
+
+        assertThat(ownedItemCount()).isEqualTo(1);
+    }
+
+    private int ownedItemCount() {
+        return transactionTemplate.execute(status ->
+                characterRepository.findById(characterId).orElseThrow().getItems().size());
+    }
+
+    private static Item item(String name, String type) {
+        Item item = new Item();
+        item.setName(name);
+        item.setType(type);
+        item.setDescription("");
+        item.setMagicalProperties("");
+        item.setDamageType("");
+        return item;
+    }
+}
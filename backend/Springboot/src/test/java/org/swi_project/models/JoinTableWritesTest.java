@@ -0,0 +1,109 @@
+package org.swi_project.models;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class JoinTableWritesTest {
+
+    private static final int INVENTORY = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private int characterId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        Character character = new Character();
+        character.setName("Hoarder");
+        character.setRace(entityManager.persist(Race.DWARF));
+        character.setCharacterClass(entityManager.persist(CharacterClass.ROGUE));
+        character.setMaxHp(10);
+        character.setStrength(10);
+        character.setDexterity(10);
+        character.setConstitution(10);
+        character.setIntelligence(10);
+        character.setWisdom(10);
+        character.setCharisma(10);
+        character.setStatus("ALIVE");
+        character.setBackground("");
+        character.setAlignment("");
+        character.setSpecialization("");
+        character.setNotes("");
+        for (int i = 0; i < INVENTORY; i++) {
+            character.addItem(entityManager.persist(item("Item " + i)));
+        }
+        characterId = entityManager.persistAndGetId(character, Integer.class);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testAddingOneItemInsertsOneRow() {
+        Character character = entityManager.find(Character.class, characterId);
+        character.getItems().size();
+        Item loot = entityManager.persist(item("Loot"));
+        entityManager.flush();
+        statistics.clear();
+
+        character.addItem(loot);
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(character.getItems()).hasSize(INVENTORY + 1);
+    }
+
+    @Test
+    void testRemovingOneItemDeletesOneRow() {
+        Character character = entityManager.find(Character.class, characterId);
+        Item first = character.getItems().iterator().next();
+        statistics.clear();
+
+        character.removeItem(first);
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(character.getItems()).hasSize(INVENTORY - 1);
+    }
+
+    @Test
+    void testJoinTableRejectsDuplicateLinks() {
+        Character character = entityManager.find(Character.class, characterId);
+        int itemId = character.getItems().iterator().next().getId();
+
+        assertThatThrownBy(() -> entityManager.getEntityManager()
+                .createNativeQuery("insert into charitems (character_id, item_id) values (?, ?)")
+                .setParameter(1, characterId)
+                .setParameter(2, itemId)
+                .executeUpdate())
+                .hasRootCauseInstanceOf(SQLIntegrityConstraintViolationException.class);
+    }
+
+    private static Item item(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setType("MISCELLANEOUS");
+        item.setDescription("");
+        item.setMagicalProperties("");
+        item.setDamageType("");
+        return item;
+    }
+}
@@ -0,0 +1,111 @@
+package org.swi_project.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.models.Item;
+import org.swi_project.repositories.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class FilterQueryTest {
+
+    private static final Set<String> FILTERABLE = Set.of("name", "type", "goldValue", "magic");
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.save(item("Longsword", "WEAPON", 150, false));
+        itemRepository.save(item("Flame Tongue", "WEAPON", 500, true));
+        itemRepository.save(item("Dagger", "WEAPON", 20, false));
+        itemRepository.save(item("Ring of Fire", "RING", 300, true));
+        itemRepository.save(item("Rope", "MISCELLANEOUS", 1, false));
+    }
+
+    private List<String> names(String... parameters) {
+        MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+        for (int i = 0; i < parameters.length; i += 2) {
+            map.add(parameters[i], parameters[i + 1]);
+        }
+        Specification<Item> filter = FilterQuery.parse(map, FILTERABLE);
+        return itemRepository.findAll(filter).stream().map(Item::getName).sorted().toList();
+    }
+
+    @Test
+    void testEqualityAndComparisonsAreCombined() {
+        assertThat(names("type", "WEAPON", "magic", "true")).containsExactly("Flame Tongue");
+        assertThat(names("type", "WEAPON", "goldValue>", "100")).containsExactly("Flame Tongue", "Longsword");
+        assertThat(names("goldValue<", "20")).containsExactly("Dagger", "Rope");
+        assertThat(names("goldValue>300", "")).containsExactly("Flame Tongue");
+        assertThat(names("type!", "WEAPON")).containsExactly("Ring of Fire", "Rope");
+    }
+
+    @Test
+    void testListsRangesAndContains() {
+        assertThat(names("type", "RING,MISCELLANEOUS")).containsExactly("Ring of Fire", "Rope");
+        assertThat(names("goldValue", "20..300")).containsExactly("Dagger", "Longsword", "Ring of Fire");
+        assertThat(names("goldValue", "..20")).containsExactly("Dagger", "Rope");
+        assertThat(names("name~", "FIRE")).containsExactly("Ring of Fire");
+        assertThat(names("name~", "%")).isEmpty();
+    }
+
+    @Test
+    void testPagingParametersAreIgnored() {
+        assertThat(names("sort", "name", "limit", "2", "after", "x", "view", "full", "magic", "true"))
+                .containsExactly("Flame Tongue", "Ring of Fire");
+    }
+
+    @Test
+    void testFilterIsAppliedBeforePaging() {
+        KeysetPager keysetPager = new KeysetPager(entityManager, new ObjectMapper(), 1, 10);
+        MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+        map.add("type", "WEAPON");
+        Specification<Item> filter = FilterQuery.parse(map, FILTERABLE);
+
+        List<String> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Item> page = keysetPager.page(itemRepository, filter, Set.of("goldValue"), "-goldValue", cursor, 1);
+            page.items().forEach(item -> all.add(item.getName()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(all).containsExactly("Flame Tongue", "Longsword", "Dagger");
+    }
+
+    @Test
+    void testRejectsUnknownFieldsAndBadValues() {
+        assertThatThrownBy(() -> names("description", "x")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> names("goldValue>", "lots")).isInstanceOf(BadRequestException.class);
+    }
+
+    private static Item item(String name, String type, int goldValue, boolean magic) {
+        Item item = new Item();
+        item.setName(name);
+        item.setType(type);
+        item.setDescription("");
+        item.setMagicalProperties("");
+        item.setDamageType("");
+        item.setGoldValue(goldValue);
+        item.setMagic(magic);
+        return item;
+    }
+}
@@ -0,0 +1,127 @@
+package org.swi_project.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.swi_project.DTO.QuestSummary;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.models.Item;
+import org.swi_project.models.Quest;
+import org.swi_project.repositories.ItemRepository;
+import org.swi_project.repositories.QuestRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class KeysetPagerTest {
+
+    private static final Set<String> SORTABLE = Set.of("id", "name", "goldValue");
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private QuestRepository questRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private KeysetPager keysetPager;
+
+    @BeforeEach
+    void setUp() {
+        keysetPager = new KeysetPager(entityManager, new ObjectMapper(), 2, 3);
+
+        int[] values = {50, 10, 50, 30, 20};
+        for (int i = 0; i < values.length; i++) {
+            Item item = new Item();
+            item.setName("Item " + (char) ('E' - i));
+            item.setType("MISCELLANEOUS");
+            item.setDescription("");
+            item.setMagicalProperties("");
+            item.setDamageType("");
+            item.setGoldValue(values[i]);
+            itemRepository.save(item);
+        }
+    }
+
+    private List<Item> readAll(String sort, Integer limit) {
+        List<Item> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Item> page = keysetPager.page(itemRepository, SORTABLE, sort, cursor, limit);
+            assertThat(page.items().size()).isLessThanOrEqualTo(3);
+            all.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    @Test
+    void testPagesByIdWithDefaultLimit() {
+        CursorPage<Item> first = keysetPager.page(itemRepository, SORTABLE, null, null, null);
+
+        assertThat(first.items()).hasSize(2);
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(readAll(null, null)).extracting(Item::getId).isSorted().hasSize(5);
+    }
+
+    @Test
+    void testPagesBySortPropertyWithTies() {
+        List<Item> all = readAll("-goldValue", 2);
+
+        assertThat(all).extracting(Item::getGoldValue).containsExactly(50, 50, 30, 20, 10);
+        assertThat(all).extracting(Item::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testClampsLimitToMaximum() {
+        assertThat(keysetPager.page(itemRepository, SORTABLE, "name", null, 100).items()).hasSize(3);
+    }
+
+    @Test
+    void testRejectsUnknownSortAndForeignCursor() {
+        assertThatThrownBy(() -> keysetPager.page(itemRepository, SORTABLE, "description", null, null))
+                .isInstanceOf(BadRequestException.class);
+
+        String cursor = keysetPager.page(itemRepository, SORTABLE, "name", null, null).nextCursor();
+        assertThatThrownBy(() -> keysetPager.page(itemRepository, SORTABLE, "goldValue", cursor, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void testPagesProjectionWithSameCursorSemantics() {
+        boolean[] completion = {true, false, true, false, true};
+        for (int i = 0; i < completion.length; i++) {
+            Quest quest = new Quest();
+            quest.setTitle("Quest " + (char) ('E' - i));
+            quest.setDescription("A long description that is not part of the summary");
+            quest.setType("MAIN");
+            quest.setCompletion(completion[i]);
+            questRepository.save(quest);
+        }
+        Set<String> sortable = Set.of("id", "title", "completion");
+
+        List<QuestSummary> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<QuestSummary> page = keysetPager.page(Quest.class, QuestRepository.SUMMARY,
+                    sortable, "-completion", cursor, 2);
+            all.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(all).extracting(QuestSummary::completion).containsExactly(true, true, true, false, false);
+        assertThat(all).extracting(QuestSummary::id).doesNotHaveDuplicates().hasSize(5);
+        assertThat(keysetPager.page(Quest.class, QuestRepository.SUMMARY, sortable, "title", null, null).items())
+                .extracting(QuestSummary::title).containsExactly("Quest A", "Quest B");
+    }
+}
@@ -0,0 +1,137 @@
+package org.swi_project.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.exception.PreconditionFailedException;
+import org.swi_project.exception.ResourceNotFoundException;
+import org.swi_project.models.Character;
+import org.swi_project.models.CharacterClass;
+import org.swi_project.models.Race;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import(MergePatchService.class)
+class MergePatchServiceTest {
+
+    private static final Set<String> PATCHABLE = Set.of("currentHp", "level", "notes", "status");
+    private static final String NOTES = "x".repeat(2000);
+
+    @Autowired
+    private MergePatchService mergePatchService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private int characterId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        Character character = new Character();
+        character.setName("Patched");
+        character.setRace(entityManager.persist(Race.ELF));
+        character.setCharacterClass(entityManager.persist(CharacterClass.WIZARD));
+        character.setMaxHp(20);
+        character.setCurrentHp(20);
+        character.setStrength(10);
+        character.setDexterity(10);
+        character.setConstitution(10);
+        character.setIntelligence(10);
+        character.setWisdom(10);
+        character.setCharisma(10);
+        character.setStatus("ALIVE");
+        character.setBackground("");
+        character.setAlignment("");
+        character.setSpecialization("");
+        character.setNotes(NOTES);
+        characterId = entityManager.persistAndGetId(character, Integer.class);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long patch(String json, String ifMatch) throws Exception {
+        JsonNode patch = objectMapper.readTree(json);
+        return mergePatchService.apply(Character.class, "Character", characterId, patch, PATCHABLE, ifMatch);
+    }
+
+    private Character reload() {
+        entityManager.clear();
+        return entityManager.find(Character.class, characterId);
+    }
+
+    @Test
+    void testPatchUpdatesOnlySuppliedColumnsInOneStatement() throws Exception {
+        statistics.clear();
+
+        long version = patch("{\"currentHp\": 7}", "\"0\"");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(version).isEqualTo(1);
+        Character character = reload();
+        assertThat(character.getCurrentHp()).isEqualTo(7);
+        assertThat(character.getNotes()).isEqualTo(NOTES);
+        assertThat(character.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void testStaleVersionIsRejected() throws Exception {
+        patch("{\"currentHp\": 7}", null);
+
+        assertThatThrownBy(() -> patch("{\"currentHp\": 3}", "\"0\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(reload().getCurrentHp()).isEqualTo(7);
+        assertThat(patch("{\"currentHp\": 3}", "\"1\"")).isEqualTo(2);
+    }
+
+    @Test
+    void testWeakTagsNeverMatch() {
+        assertThatThrownBy(() -> patch("{\"currentHp\": 3}", "W/\"0\""))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("strong tag");
+        assertThat(reload().getCurrentHp()).isNotEqualTo(3);
+    }
+
+    @Test
+    void testInvalidPatchesAreRejected() {
+        assertThatThrownBy(() -> patch("{\"name\": \"Renamed\"}", null)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> patch("{\"level\": 40}", null)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> patch("{\"level\": null}", null)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> patch("{\"status\": \"\"}", null)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> patch("{\"notes\": null}", null)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> patch("[1]", null)).isInstanceOf(BadRequestException.class);
+        assertThat(reload().getVersion()).isZero();
+    }
+
+    @Test
+    void testMissingEntityIsNotFound() {
+        assertThatThrownBy(() -> mergePatchService.apply(Character.class, "Character", -1,
+                objectMapper.createObjectNode().put("currentHp", 1), PATCHABLE, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
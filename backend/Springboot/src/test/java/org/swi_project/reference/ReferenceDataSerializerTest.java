@@ -0,0 +1,74 @@
+package org.swi_project.reference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.swi_project.models.Character;
+import org.swi_project.models.CharacterClass;
+import org.swi_project.models.Race;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serializes after the transaction has ended, like a response written with open-in-view off.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ReferenceDataRegistry.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataSerializerTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReferenceDataRegistry registry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testWritesKnownReferencesFromTheRegistry() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(Race.ELF));
+        registry.reload();
+        try {
+            Character character = new Character();
+            character.setRace(transactionTemplate.execute(status -> entityManager.getReference(Race.class, "ELF")));
+
+            JsonNode race = objectMapper.valueToTree(character).get("race");
+            assertThat(race.get("name").asText()).isEqualTo("ELF");
+            assertThat(race.get("baseSpeed").asInt()).isEqualTo(30);
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    entityManager.remove(entityManager.find(Race.class, "ELF")));
+            registry.reload();
+        }
+    }
+
+    @Test
+    void testWritesUnknownUnloadedReferencesByName() throws Exception {
+        Character character = new Character();
+        character.setRace(transactionTemplate.execute(status -> entityManager.getReference(Race.class, "ORC")));
+        character.setCharacterClass(transactionTemplate.execute(status ->
+                entityManager.getReference(CharacterClass.class, "ARTIFICER")));
+        assertThat(Hibernate.isInitialized(character.getRace())).isFalse();
+
+        JsonNode json = objectMapper.valueToTree(character);
+
+        assertThat(json.get("race").toString()).isEqualTo("{\"name\":\"ORC\"}");
+        assertThat(json.get("characterClass").toString()).isEqualTo("{\"name\":\"ARTIFICER\"}");
+    }
+}
@@ -0,0 +1,76 @@
+package org.swi_project.repositories;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL behind each repository access path against the migrated schema
+ * and checks the intended index is chosen, so a migration cannot silently drop one.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class AccessPathIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> accessPaths() {
+        return Stream.of(
+                Arguments.of("select item_id from charitems where character_id = 1", "PRIMARY_KEY"),
+                Arguments.of("select character_id from charitems where item_id = 1", "IDX_CHARITEMS_ITEM"),
+                Arguments.of("select spell_id from charspells where character_id = 1", "PRIMARY_KEY"),
+                Arguments.of("select character_id from charspells where spell_id = 1", "IDX_CHARSPELLS_SPELL"),
+                Arguments.of("select quest_id from charquest where character_id = 1", "PRIMARY_KEY"),
+                Arguments.of("select character_id from charquest where quest_id = 1", "IDX_CHARQUEST_QUEST"),
+                Arguments.of("select monster_id from ownedmonsterbychar where character_id = 1", "PRIMARY_KEY"),
+                Arguments.of("select character_id from ownedmonsterbychar where monster_id = 1",
+                        "IDX_OWNEDMONSTERBYCHAR_MONSTER"),
+                Arguments.of("select item_id from lootdropped where monster_id = 1", "PRIMARY_KEY"),
+                Arguments.of("select monster_id from lootdropped where item_id = 1", "IDX_LOOTDROPPED_ITEM"),
+                // H2 keeps a separate index per foreign key and may prefer it; any index will do.
+                Arguments.of("select id from monstersinlocation where location_id = 1", null),
+                Arguments.of("select id from monstersinlocation where monster_id = 1", null),
+                Arguments.of("select id from npc where location_id = 1", null),
+                Arguments.of("select id from npc where location_id = 1 and role = 'MERCHANT'", "IDX_NPC_LOCATION_ROLE"),
+                Arguments.of("select id from npc where role = 'MERCHANT'", "IDX_NPC_ROLE"),
+                Arguments.of("select id from npc where hostility = true", "IDX_NPC_HOSTILITY"),
+                Arguments.of("select id from item where type = 'WEAPON' and gold_value >= 100", "IDX_ITEM_TYPE_GOLD"),
+                Arguments.of("select id from item where magic = true and gold_value >= 100", "IDX_ITEM_MAGIC_GOLD"),
+                Arguments.of("select id from spell where type = 'EVOCATION' and level = 3", "IDX_SPELL_TYPE_LEVEL"),
+                Arguments.of("select id from spell where level between 3 and 5", "IDX_SPELL_LEVEL"),
+                Arguments.of("select id from monster where type = 'BEAST' and health >= 10", "IDX_MONSTER_TYPE_HEALTH"),
+                Arguments.of("select id from monster where boss = true", "IDX_MONSTER_BOSS"),
+                Arguments.of("select id from quest where type = 'MAIN'", "IDX_QUEST_TYPE_COMPLETION"),
+                Arguments.of("select id from quest where completion = false", "IDX_QUEST_COMPLETION"),
+                Arguments.of("select id from game_character where status = 'ALIVE' and level between 1 and 5",
+                        "IDX_CHARACTER_STATUS_LEVEL"),
+                Arguments.of("select id from refresh_token where token_hash = 'x'", "UKKDJ16CLTJXDKSUYIOSDHLIVEG"),
+                Arguments.of("select id from refresh_token where user_id = 1 and revoked = false",
+                        "IDX_REFRESH_TOKEN_USER"),
+                Arguments.of("select id from refresh_token where expires_at < current_timestamp",
+                        "IDX_REFRESH_TOKEN_EXPIRES"),
+                Arguments.of("select id from revoked_token where expires_at < current_timestamp",
+                        "IDX_REVOKED_TOKEN_EXPIRES"),
+                Arguments.of("select id from users where username = 'x'", "UKR43AF9AP4EDM43MMTQ01ODDJ6"),
+                Arguments.of("select id from users where email = 'x'", "UK6DOTKOTT2KJSP8VW4D0M25FB7")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("accessPaths")
+    void testQueryUsesIndex(String sql, String index) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+
+        assertThat(plan).doesNotContain("tableScan");
+        if (index != null) {
+            assertThat(plan).containsIgnoringCase(index);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.swi_project.repositories;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.swi_project.DTO.BulkCharacterUpdate;
+import org.swi_project.DTO.BulkCharacterUpdate.Filter;
+import org.swi_project.DTO.BulkCharacterUpdate.Operation;
+import org.swi_project.DTO.CharacterVitals;
+import org.swi_project.exception.BadRequestException;
+import org.swi_project.models.Character;
+import org.swi_project.models.CharacterClass;
+import org.swi_project.models.Race;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CharacterBulkRepositoryTest {
+
+    private static final int PARTY = 25;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CharacterRepository characterRepository;
+
+    private Statistics statistics;
+    private final List<Integer> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        Race elf = entityManager.persist(Race.ELF);
+        Race dwarf = entityManager.persist(Race.DWARF);
+        CharacterClass wizard = entityManager.persist(CharacterClass.WIZARD);
+        for (int i = 0; i < PARTY; i++) {
+            ids.add(entityManager.persistAndGetId(character("Hero " + i, i % 2 == 0 ? elf : dwarf, wizard, i + 1),
+                    Integer.class));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void testDamageIsOneStatementAndStopsAtZero() {
+        int updated = characterRepository.bulkUpdate(ids, new BulkCharacterUpdate(Operation.DAMAGE, 5, null, ids, null));
+
+        assertThat(updated).isEqualTo(PARTY);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        List<CharacterVitals> vitals = characterRepository.findVitals(ids);
+        assertThat(vitals).hasSize(PARTY);
+        assertThat(vitals.get(0).currentHp()).isZero();
+        assertThat(vitals.get(PARTY - 1).currentHp()).isEqualTo(PARTY - 5);
+    }
+
+    @Test
+    void testHealWithAmountStopsAtMaxHp() {
+        characterRepository.bulkUpdate(ids, new BulkCharacterUpdate(Operation.HEAL, 10, null, ids, null));
+
+        assertThat(characterRepository.findVitals(ids))
+                .allSatisfy(v -> assertThat(v.currentHp()).isEqualTo(Math.min(v.maxHp(), v.id() - ids.get(0) + 11)));
+    }
+
+    @Test
+    void testFilterSelectsMatchingCharacters() {
+        List<Integer> elves = characterRepository.lockIds(new Filter(null, "ELF", null, null, 10));
+
+        assertThat(elves).containsExactly(ids.get(0), ids.get(2), ids.get(4), ids.get(6), ids.get(8));
+        assertThatThrownBy(() -> characterRepository.lockIds(new Filter(null, null, null, null, null)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void testFilteredUpdateSkipsCharactersThatStoppedMatching() {
+        Filter elves = new Filter(null, "ELF", null, null, 10);
+        List<Integer> targets = characterRepository.lockIds(elves);
+        entityManager.find(Character.class, targets.get(0)).setLevel(15);
+        entityManager.flush();
+
+        int updated = characterRepository.bulkUpdate(targets,
+                new BulkCharacterUpdate(Operation.SET_STATUS, null, "RESTING", null, elves));
+
+        assertThat(updated).isEqualTo(targets.size() - 1);
+        entityManager.clear();
+        assertThat(entityManager.find(Character.class, targets.get(0)).getStatus()).isEqualTo("ALIVE");
+        assertThat(entityManager.find(Character.class, targets.get(1)).getStatus()).isEqualTo("RESTING");
+    }
+
+    @Test
+    void testLevelUpStopsAtTwenty() {
+        characterRepository.bulkUpdate(ids, new BulkCharacterUpdate(Operation.LEVEL_UP, 5, null, ids, null));
+
+        assertThat(characterRepository.findVitals(ids)).extracting(CharacterVitals::level).allMatch(level -> level <= 20);
+        assertThat(entityManager.find(Character.class, ids.get(0)).getVersion()).isEqualTo(1);
+    }
+
+    private static Character character(String name, Race race, CharacterClass characterClass, int currentHp) {
+        Character character = new Character();
+        character.setName(name);
+        character.setRace(race);
+        character.setCharacterClass(characterClass);
+        character.setLevel(Math.min(20, currentHp));
+        character.setMaxHp(30);
+        character.setCurrentHp(currentHp);
+        character.setStrength(10);
+        character.setDexterity(10);
+        character.setConstitution(10);
+        character.setIntelligence(10);
+        character.setWisdom(10);
+        character.setCharisma(10);
+        character.setStatus("ALIVE");
+        character.setBackground("");
+        character.setAlignment("");
+        character.setSpecialization("");
+        character.setNotes("");
+        return character;
+    }
+}
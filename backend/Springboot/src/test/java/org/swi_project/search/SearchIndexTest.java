@@ -0,0 +1,83 @@
+package org.swi_project.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex(null, null);
+        index.put(SearchDocument.create(SearchType.ITEMS, 1, "Flame Tongue", "A sword wreathed in fire", "Deals fire damage"));
+        index.put(SearchDocument.create(SearchType.SPELLS, 1, "Fireball", "A bright streak flashes to a point"));
+        index.put(SearchDocument.create(SearchType.MONSTERS, 1, "Fire Elemental", "A wild spirit of flame", "Fire form"));
+        index.put(SearchDocument.create(SearchType.NPCS, 1, "Žofie", "Kovářka ve vesnici"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRanksNameMatchesFirst() {
+        assertThat(index.search("fire ", Set.of(), 10))
+                .extracting(SearchHit::type)
+                .containsExactly("monsters", "items");
+    }
+
+    @Test
+    void testCompletesLastTermAsPrefix() {
+        assertThat(index.search("fir", Set.of(), 10)).extracting(SearchHit::name)
+                .containsExactlyInAnyOrder("Fire Elemental", "Flame Tongue", "Fireball");
+        assertThat(index.search("fire elem", Set.of(), 10)).extracting(SearchHit::name)
+                .containsExactly("Fire Elemental");
+    }
+
+    @Test
+    void testFiltersByTypeAndFoldsDiacritics() {
+        assertThat(index.search("fir", EnumSet.of(SearchType.SPELLS), 10)).extracting(SearchHit::name)
+                .containsExactly("Fireball");
+        assertThat(index.search("zofie kovarka", Set.of(), 10)).extracting(SearchHit::id).containsExactly(1);
+    }
+
+    @Test
+    void testUpdatesAndRemovalsReplacePostings() {
+        index.put(SearchDocument.create(SearchType.SPELLS, 1, "Frost Ray", "A ray of cold"));
+        assertThat(index.search("fireball", Set.of(), 10)).isEmpty();
+        assertThat(index.search("frost", Set.of(), 10)).extracting(SearchHit::type).containsExactly("spells");
+
+        index.remove(SearchType.SPELLS, 1);
+        assertThat(index.search("frost", Set.of(), 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testUpdatesApplyOnlyOnceTheirTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.put(SearchDocument.create(SearchType.SPELLS, 1, "Frost Ray", "A ray of cold"));
+        assertThat(index.search("frost", Set.of(), 10)).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(index.search("fireball", Set.of(), 10)).extracting(SearchHit::type).containsExactly("spells");
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.remove(SearchType.SPELLS, 1);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(index.search("fireball", Set.of(), 10)).isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package org.swi_project.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.swi_project.models.User;
+import org.swi_project.models.UserRole;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private TokenRevocationService revocationService;
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+    private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100);
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(revocationService.isRevoked(any())).thenReturn(false);
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-that-is-long-enough-for-hmac-sha256");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60000L);
+        jwtUtil.init();
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, verifiedTokenCache, revocationService);
+        ReflectionTestUtils.setField(filter, "statelessAuth", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRoleClaimAuthenticatesWithoutLoadingTheUser() throws Exception {
+        User user = new User();
+        user.setUsername("gm");
+        user.setRole(UserRole.ADMIN);
+        String token = jwtUtil.generateToken(user);
+
+        for (int i = 0; i < 2; i++) {
+            SecurityContextHolder.clearContext();
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/characters");
+            request.addHeader("Authorization", "Bearer " + token);
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            assertThat(authentication.getName()).isEqualTo("gm");
+            assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                    .containsExactly("ROLE_ADMIN");
+        }
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        assertThat(verifiedTokenCache.size()).isEqualTo(1);
+    }
+}
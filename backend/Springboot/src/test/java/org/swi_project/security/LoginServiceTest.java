@@ -0,0 +1,103 @@
+package org.swi_project.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.swi_project.exception.TooManyRequestsException;
+import org.swi_project.models.User;
+import org.swi_project.repositories.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class LoginServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private User user(String password) {
+        User user = new User();
+        user.setUsername("gm");
+        user.setPassword(passwordEncoder.encode(password));
+        return user;
+    }
+
+    @Test
+    void testAuthenticateLoadsUserOnce() {
+        User user = user("secret");
+        when(userRepository.findByUsername("gm")).thenReturn(Optional.of(user));
+        LoginService loginService = new LoginService(userRepository, passwordEncoder, Runnable::run, Runnable::run, 2);
+
+        User result = loginService.authenticate("gm", "secret").join();
+
+        assertThat(result).isSameAs(user);
+        verify(userRepository, times(1)).findByUsername("gm");
+    }
+
+    @Test
+    void testAuthenticateCompletesOnTheCompletionExecutor() {
+        when(userRepository.findByUsername("gm")).thenReturn(Optional.of(user("secret")));
+        List<Runnable> completions = new ArrayList<>();
+        LoginService loginService = new LoginService(userRepository, passwordEncoder, Runnable::run,
+                completions::add, 2);
+
+        CompletableFuture<User> result = loginService.authenticate("gm", "secret");
+
+        assertThat(result).isNotDone();
+        assertThat(completions).hasSize(1);
+        completions.get(0).run();
+        assertThat(result).isCompleted();
+    }
+
+    @Test
+    void testAuthenticateWrongPassword() {
+        when(userRepository.findByUsername("gm")).thenReturn(Optional.of(user("secret")));
+        LoginService loginService = new LoginService(userRepository, passwordEncoder, Runnable::run, Runnable::run, 2);
+
+        assertThatThrownBy(() -> loginService.authenticate("gm", "wrong").join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void testAuthenticateUnknownUser() {
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+        LoginService loginService = new LoginService(userRepository, passwordEncoder, Runnable::run, Runnable::run, 2);
+
+        assertThatThrownBy(() -> loginService.authenticate("nobody", "secret").join())
+                .hasCauseInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void testAuthenticateQueueFull() {
+        when(userRepository.findByUsername("gm")).thenReturn(Optional.of(user("secret")));
+        Executor saturated = task -> {
+            throw new RejectedExecutionException();
+        };
+        LoginService loginService = new LoginService(userRepository, passwordEncoder, saturated, Runnable::run, 2);
+
+        assertThatThrownBy(() -> loginService.authenticate("gm", "secret"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(2L);
+    }
+}
@@ -0,0 +1,81 @@
+package org.swi_project.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.swi_project.models.RefreshToken;
+import org.swi_project.models.User;
+import org.swi_project.repositories.RefreshTokenRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private final User user = new User();
+    private final RefreshToken stored = new RefreshToken();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, 60000);
+        user.setUsername("gm");
+        stored.setId(1L);
+        stored.setUser(user);
+        stored.setExpiresAt(Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+    }
+
+    @Test
+    void testRotateRevokesThePresentedToken() {
+        when(refreshTokenRepository.revokeIfActive(1L)).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("token");
+
+        assertThat(rotation.user()).isSameAs(user);
+        assertThat(rotation.refreshToken()).isNotBlank();
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(refreshTokenRepository, never()).revokeAllByUser(any());
+    }
+
+    @Test
+    void testConcurrentRotationCountsAsReuse() {
+        // Another request revoked the token between our read and our update.
+        when(refreshTokenRepository.revokeIfActive(1L)).thenReturn(0);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("token")).isInstanceOf(BadCredentialsException.class);
+        verify(refreshTokenRepository).revokeAllByUser(user);
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void testRevokedTokenRevokesTheWholeFamily() {
+        stored.setRevoked(true);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("token")).isInstanceOf(BadCredentialsException.class);
+        verify(refreshTokenRepository).revokeAllByUser(user);
+        verify(refreshTokenRepository, never()).revokeIfActive(any());
+    }
+
+    @Test
+    void testDeleteExpiredPurgesPastTheirExpiry() {
+        Instant before = Instant.now();
+
+        refreshTokenService.deleteExpired();
+
+        verify(refreshTokenRepository).deleteExpired(argThat(now -> !now.isBefore(before)));
+    }
+}
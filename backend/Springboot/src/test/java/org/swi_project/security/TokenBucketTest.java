@@ -0,0 +1,43 @@
+package org.swi_project.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void testConsumesUntilEmpty() {
+        TokenBucket bucket = new TokenBucket(3, 60, 0);
+
+        assertThat(bucket.tryConsume(0).remaining()).isEqualTo(2);
+        assertThat(bucket.tryConsume(0).remaining()).isEqualTo(1);
+        assertThat(bucket.tryConsume(0).allowed()).isTrue();
+
+        TokenBucket.Probe rejected = bucket.tryConsume(0);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.remaining()).isZero();
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(1);
+        assertThat(rejected.resetSeconds()).isEqualTo(3);
+    }
+
+    @Test
+    void testRefillsOverTime() {
+        TokenBucket bucket = new TokenBucket(1, 60, 0);
+        bucket.tryConsume(0);
+
+        assertThat(bucket.tryConsume(TimeUnit.MILLISECONDS.toNanos(500)).allowed()).isFalse();
+        assertThat(bucket.tryConsume(TimeUnit.MILLISECONDS.toNanos(1500)).allowed()).isTrue();
+    }
+
+    @Test
+    void testNeverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 60, 0);
+
+        TokenBucket.Probe probe = bucket.tryConsume(TimeUnit.HOURS.toNanos(1));
+
+        assertThat(probe.remaining()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,82 @@
+package org.swi_project.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.swi_project.models.RevokedToken;
+import org.swi_project.repositories.RevokedTokenRepository;
+import org.swi_project.security.VerifiedTokenCache.VerifiedToken;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of());
+        revocationService = new TokenRevocationService(revokedTokenRepository, 900000, 100);
+        revocationService.load();
+    }
+
+    private VerifiedToken token(String tokenId, String username, int version) {
+        return new VerifiedToken(username, List.of(), tokenId, version, Instant.now().plusSeconds(60).toEpochMilli());
+    }
+
+    @Test
+    void testRevokeSingleToken() {
+        revocationService.revokeToken("jti-1", "gm", Instant.now().plusSeconds(60));
+
+        assertThat(revocationService.isRevoked(token("jti-1", "gm", 0))).isTrue();
+        assertThat(revocationService.isRevoked(token("jti-2", "gm", 0))).isFalse();
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void testRevokeUserRejectsOlderVersions() {
+        revocationService.revokeUser("gm", 3);
+
+        assertThat(revocationService.isRevoked(token("a", "gm", 2))).isTrue();
+        assertThat(revocationService.isRevoked(token("b", "gm", 3))).isFalse();
+        assertThat(revocationService.isRevoked(token("c", "player", 0))).isFalse();
+    }
+
+    @Test
+    void testLoadRestoresPersistedRevocations() {
+        RevokedToken persisted = new RevokedToken();
+        persisted.setTokenId("jti-9");
+        persisted.setUsername("gm");
+        persisted.setExpiresAt(Instant.now().plusSeconds(60));
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of(persisted));
+
+        revocationService.load();
+
+        assertThat(revocationService.isRevoked(token("jti-9", "gm", 0))).isTrue();
+        verify(revokedTokenRepository, times(2)).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    void testReloadPicksUpRevocationsFromOtherInstances() {
+        RevokedToken elsewhere = new RevokedToken();
+        elsewhere.setUsername("player");
+        elsewhere.setMinVersion(2);
+        elsewhere.setExpiresAt(Instant.now().plusSeconds(60));
+        assertThat(revocationService.isRevoked(token("d", "player", 1))).isFalse();
+
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Instant.class))).thenReturn(List.of(elsewhere));
+        revocationService.reload();
+
+        assertThat(revocationService.isRevoked(token("d", "player", 1))).isTrue();
+    }
+}
@@ -0,0 +1,43 @@
+package org.swi_project.security;
+
+import org.junit.jupiter.api.Test;
+import org.swi_project.security.VerifiedTokenCache.VerifiedToken;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+    private static VerifiedToken token(long expiresAt) {
+        return new VerifiedToken("gm", List.of(), "jti", 0, expiresAt);
+    }
+
+    @Test
+    void testDropsExpiredTokens() {
+        cache.put("expired", token(System.currentTimeMillis() - 1));
+
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testStaysBoundedPreferringToDropExpiredTokens() {
+        long live = System.currentTimeMillis() + 60000;
+        cache.put("live", token(live));
+        for (int i = 0; i < 9; i++) {
+            cache.put("expired-" + i, token(System.currentTimeMillis() - 1));
+        }
+        cache.put("another", token(live));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("live")).isNotNull();
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, token(live));
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+}
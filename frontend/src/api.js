@@ -13,6 +13,16 @@ const setAuthToken = (token) => {
     }
 };
 
+const getRefreshToken = () => localStorage.getItem('refreshToken');
+
+const setRefreshToken = (refreshToken) => {
+    if (refreshToken) {
+        localStorage.setItem('refreshToken', refreshToken);
+    } else {
+        localStorage.removeItem('refreshToken');
+    }
+};
+
 const getUser = () => {
     const user = localStorage.getItem('user');
     return user ? JSON.parse(user) : null;
@@ -26,8 +36,56 @@ const setUser = (user) => {
     }
 };
 
+let refreshInFlight = null;
+
+const MAX_RATE_LIMIT_RETRIES = 3;
+
+// Retry-After is either delay-seconds or an HTTP date; without it, back off exponentially.
+const retryAfterMillis = (headers, attempt) => {
+    const value = headers.get('Retry-After');
+    if (value) {
+        const seconds = Number(value);
+        const millis = Number.isNaN(seconds) ? Date.parse(value) - Date.now() : seconds * 1000;
+        if (!Number.isNaN(millis)) {
+            return Math.max(millis, 0);
+        }
+    }
+    return 1000 * 2 ** attempt;
+};
+
+// Access tokens are short-lived; trade the refresh token for a new pair, sharing one request between callers.
+async function refreshAccessToken() {
+    const refreshToken = getRefreshToken();
+    if (!refreshToken) {
+        return false;
+    }
+    if (!refreshInFlight) {
+        refreshInFlight = fetch(`${API_BASE_URL}/auth/refresh`, {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({ refreshToken })
+        })
+            .then(async (response) => {
+                if (!response.ok) {
+                    return false;
+                }
+                const data = await response.json();
+                setAuthToken(data.token);
+                setRefreshToken(data.refreshToken);
+                return true;
+            })
+            .catch(() => false)
+            .finally(() => {
+                refreshInFlight = null;
+            });
+    }
+    return refreshInFlight;
+}
+
 async function fetchApi(endpoint, options = {}) {
-    const { method = 'GET', body, headers = {}, withCredentials = true, ...rest } = options;
+    const {
+        method = 'GET', body, headers = {}, withCredentials = true, retried = false, rateLimitRetries = 0, onHeaders, ...rest
+    } = options;
     const token = getAuthToken();
 
     const fullHeaders = {
@@ -46,8 +104,18 @@ async function fetchApi(endpoint, options = {}) {
 
     const contentType = response.headers.get("content-type");
 
+    if (response.status === 429 && rateLimitRetries < MAX_RATE_LIMIT_RETRIES) {
+        await new Promise((resolve) => setTimeout(resolve, retryAfterMillis(response.headers, rateLimitRetries)));
+        return fetchApi(endpoint, { ...options, rateLimitRetries: rateLimitRetries + 1 });
+    }
+
+    if (response.status === 401 && !retried && !endpoint.startsWith('/auth/') && await refreshAccessToken()) {
+        return fetchApi(endpoint, { ...options, retried: true });
+    }
+
     if (response.status === 401) {
         setAuthToken(null);
+        setRefreshToken(null);
         setUser(null);
         window.dispatchEvent(new CustomEvent('auth:logout'));
     }
@@ -67,6 +135,8 @@ async function fetchApi(endpoint, options = {}) {
         throw error;
     }
 
+    onHeaders?.(response.headers);
+
     if (contentType?.includes("application/json")) {
         const text = await response.text();
         try {
@@ -79,6 +149,141 @@ async function fetchApi(endpoint, options = {}) {
     return null;
 }
 
+// Largest page the server hands out (pagination.max-limit); fewer pages means fewer requests against the rate limit.
+const PAGE_LIMIT = 500;
+
+// List endpoints are keyset-paginated; follow X-Next-Cursor until the last page.
+// Characters, monsters, quests and locations list summaries unless view=full is requested.
+async function fetchAllPages(endpoint) {
+    const results = [];
+    const separator = endpoint.includes('?') ? '&' : '?';
+    const first = `${endpoint}${separator}limit=${PAGE_LIMIT}`;
+    let cursor = null;
+    do {
+        const url = cursor ? `${first}&after=${encodeURIComponent(cursor)}` : first;
+        const page = await fetchApi(url, {
+            onHeaders: (headers) => {
+                cursor = headers.get('X-Next-Cursor');
+            }
+        });
+        results.push(...(page || []));
+    } while (cursor);
+    return results;
+}
+
+// Filters use the list query syntax, e.g. 'type=WEAPON&goldValue>=100&level=3..5'.
+const withFilter = (endpoint, filter) =>
+    filter ? `${endpoint}${endpoint.includes('?') ? '&' : '?'}${filter}` : endpoint;
+
+// Sends only the changed fields; pass the entity's version field (not the ETag of a GET) to reject stale edits (412).
+// Resolves to the new version taken from the ETag.
+async function mergePatch(endpoint, changes, version) {
+    let newVersion = null;
+    await fetchApi(endpoint, {
+        method: 'PATCH',
+        body: JSON.stringify(changes),
+        headers: {
+            'Content-Type': 'application/merge-patch+json',
+            ...(version != null ? { 'If-Match': `"${version}"` } : {})
+        },
+        onHeaders: (headers) => {
+            const etag = headers.get('ETag');
+            newVersion = etag ? Number(etag.replace(/^W\//, '').replace(/"/g, '')) : null;
+        }
+    });
+    return newVersion;
+}
+
+// Minimal text/event-stream reader: collects id, event and data lines up to each blank line.
+async function readEvents(body, dispatch) {
+    const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    let event = { data: '' };
+    for (;;) {
+        const { value: chunk, done } = await reader.read();
+        if (done) {
+            return;
+        }
+        buffer += chunk;
+        const lines = buffer.split(/\r?\n/);
+        buffer = lines.pop();
+        for (const line of lines) {
+            if (line === '') {
+                if (event.name || event.data) {
+                    dispatch(event);
+                }
+                event = { data: '' };
+            } else if (!line.startsWith(':')) {
+                const colon = line.indexOf(':');
+                const field = colon < 0 ? line : line.slice(0, colon);
+                const value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+                if (field === 'data') {
+                    event.data += event.data ? `\n${value}` : value;
+                } else if (field === 'id') {
+                    event.id = value;
+                } else if (field === 'event') {
+                    event.name = value;
+                }
+            }
+        }
+    }
+}
+
+// Calls onChange with each committed change ({ type, id, op, fields, version }), optionally only for some types.
+// EventSource cannot send the Authorization header, so the stream is read with fetch. After a drop it reconnects
+// with Last-Event-ID to receive what it missed; when the server can no longer replay that, onResync is called and
+// the view should reload. Returns a function that closes the stream.
+function subscribeChanges(onChange, { types = [], onResync } = {}) {
+    const controller = new AbortController();
+    let lastEventId = null;
+    let retryDelay = 1000;
+
+    const dispatch = (event) => {
+        if (event.id) {
+            lastEventId = event.id;
+        }
+        if (event.name === 'resync') {
+            onResync?.();
+        } else if (event.name === 'change') {
+            onChange(JSON.parse(event.data));
+        }
+    };
+
+    const connect = async () => {
+        while (!controller.signal.aborted) {
+            try {
+                const token = getAuthToken();
+                const response = await fetch(
+                    `${API_BASE_URL}/changes${types.length ? `?types=${types.join(',')}` : ''}`, {
+                        headers: {
+                            Accept: 'text/event-stream',
+                            ...(token ? { Authorization: `Bearer ${token}` } : {}),
+                            ...(lastEventId ? { 'Last-Event-ID': lastEventId } : {})
+                        },
+                        credentials: 'include',
+                        signal: controller.signal
+                    });
+                if (response.status === 401 && !await refreshAccessToken()) {
+                    return;
+                }
+                if (response.ok) {
+                    retryDelay = 1000;
+                    await readEvents(response.body, dispatch);
+                }
+            } catch {
+                if (controller.signal.aborted) {
+                    return;
+                }
+            }
+            await new Promise((resolve) => setTimeout(resolve, retryDelay));
+            retryDelay = Math.min(retryDelay * 2, 30000);
+        }
+    };
+
+    connect();
+    return () => controller.abort();
+}
+
 export const auth = {
     login: async (username, password) => {
         const response = await fetchApi('/auth/login', {
@@ -86,6 +291,7 @@ export const auth = {
             body: JSON.stringify({ username, password })
         });
         setAuthToken(response.token);
+        setRefreshToken(response.refreshToken);
         setUser({ username: response.username, role: response.role });
         return response;
     },
@@ -98,7 +304,15 @@ export const auth = {
     },
 
     logout: () => {
+        const refreshToken = getRefreshToken();
+        if (getAuthToken() || refreshToken) {
+            fetchApi('/auth/logout', {
+                method: 'POST',
+                body: JSON.stringify({ refreshToken })
+            }).catch(() => {});
+        }
         setAuthToken(null);
+        setRefreshToken(null);
         setUser(null);
     },
 
@@ -117,7 +331,7 @@ export const auth = {
 };
 
 export const api = {
-    getCharacters: () => fetchApi('/characters'),
+    getCharacters: () => fetchAllPages('/characters'),
     getCharacter: (id) => fetchApi(`/characters/${id}`),
     createCharacter: (character) => fetchApi('/characters', {
         method: 'POST',
@@ -130,6 +344,7 @@ export const api = {
     deleteCharacter: (id) => fetchApi(`/characters/${id}`, {
         method: 'DELETE'
     }),
+    patchCharacter: (id, changes, version) => mergePatch(`/characters/${id}`, changes, version),
     healCharacter: (id) => fetchApi(`/characters/${id}/heal`, {
         method: 'PUT'
     }),
@@ -139,9 +354,20 @@ export const api = {
         body: JSON.stringify(characterIds)
     }),
 
+    bulkUpdateCharacters: (update) => fetchApi('/characters/bulk', {
+        method: 'POST',
+        body: JSON.stringify(update)
+    }),
+
     assignItemToCharacter: (characterId, itemId) =>
         fetchApi(`/characters/${characterId}/items/${itemId}`, { method: 'POST' }),
 
+    assignItemsToCharacter: (characterId, itemIds) =>
+        fetchApi(`/characters/${characterId}/items`, {
+            method: 'POST',
+            body: JSON.stringify(itemIds)
+        }),
+
     removeItemFromCharacter: (characterId, itemId) =>
         fetchApi(`/characters/${characterId}/items/${itemId}`, { method: 'DELETE' }),
 
@@ -151,7 +377,12 @@ export const api = {
             body: JSON.stringify({ itemId, equip })
         }),
 
-    getItems: () => fetchApi('/items'),
+    subscribeChanges,
+
+    search: (query, types = []) => fetchApi(
+        `/search?q=${encodeURIComponent(query)}${types.length ? `&types=${types.join(',')}` : ''}`),
+
+    getItems: (filter) => fetchAllPages(withFilter('/items', filter)),
     getItem: (id) => fetchApi(`/items/${id}`),
     createItem: (item) => fetchApi('/items', {
         method: 'POST',
@@ -161,9 +392,10 @@ export const api = {
         method: 'PUT',
         body: JSON.stringify(item)
     }),
+    patchItem: (id, changes, version) => mergePatch(`/items/${id}`, changes, version),
     deleteItem: (id) => fetchApi(`/items/${id}`, { method: 'DELETE' }),
 
-    getSpells: () => fetchApi('/spells'),
+    getSpells: (filter) => fetchAllPages(withFilter('/spells', filter)),
     getSpell: (id) => fetchApi(`/spells/${id}`),
     createSpell: (spell) => fetchApi('/spells', {
         method: 'POST',
@@ -175,6 +407,7 @@ export const api = {
             body: JSON.stringify(spell)
         });
     },
+    patchSpell: (id, changes, version) => mergePatch(`/spells/${id}`, changes, version),
     deleteSpell: (id) => {
         return fetchApi(`/spells/${id}`, {
             method: 'DELETE'
@@ -186,7 +419,7 @@ export const api = {
     removeSpellFromCharacter: (characterId, spellId) =>
         fetchApi(`/characters/${characterId}/spells/${spellId}`, { method: 'DELETE' }),
 
-    getMonsters: () => fetchApi('/monsters'),
+    getMonsters: (filter) => fetchAllPages(withFilter('/monsters?view=full', filter)),
     getMonster: (id) => fetchApi(`/monsters/${id}`),
     createMonster: (monster) => fetchApi('/monsters', {
         method: 'POST',
@@ -196,9 +429,10 @@ export const api = {
         method: 'PUT',
         body: JSON.stringify(monster)
     }),
+    patchMonster: (id, changes, version) => mergePatch(`/monsters/${id}`, changes, version),
     deleteMonster: (id) => fetchApi(`/monsters/${id}`, { method: 'DELETE' }),
 
-    getNpcs: () => fetchApi('/npcs'),
+    getNpcs: (filter) => fetchAllPages(withFilter('/npcs', filter)),
     getNpc: (id) => fetchApi(`/npcs/${id}`),
     createNpc: (npc) => fetchApi('/npcs', {
         method: 'POST',
@@ -208,9 +442,10 @@ export const api = {
         method: 'PUT',
         body: JSON.stringify(npc)
     }),
+    patchNpc: (id, changes, version) => mergePatch(`/npcs/${id}`, changes, version),
     deleteNpc: (id) => fetchApi(`/npcs/${id}`, { method: 'DELETE' }),
 
-    getLocation: () => fetchApi('/locations'),
+    getLocation: () => fetchAllPages('/locations?view=full'),
     createLocation: (location) => fetchApi('/locations', {
         method: 'POST',
         body: JSON.stringify(location)
@@ -219,9 +454,15 @@ export const api = {
         method: 'PUT',
         body: JSON.stringify(location)
     }),
+    // Merge patch: only the members sent change; npcs/monstersInLocation replace the lists, null empties them.
+    patchLocation: (id, changes) => fetchApi(`/locations/${id}`, {
+        method: 'PATCH',
+        body: JSON.stringify(changes),
+        headers: { 'Content-Type': 'application/merge-patch+json' }
+    }),
     deleteLocation: (id) => fetchApi(`/locations/${id}`, { method: 'DELETE' }),
 
-    getQuests: () => fetchApi('/quests'),
+    getQuests: (filter) => fetchAllPages(withFilter('/quests?view=full', filter)),
     getQuest: (id) => fetchApi(`/quests/${id}`),
     addQuest: (quest) => fetchApi('/quests', {
         method: 'POST',
@@ -231,6 +472,7 @@ export const api = {
         method: 'PUT',
         body: JSON.stringify(quest)
     }),
+    patchQuest: (id, changes, version) => mergePatch(`/quests/${id}`, changes, version),
     deleteQuest: (id) => fetchApi(`/quests/${id}`, {
         method: 'DELETE'
     }),
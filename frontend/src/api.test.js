@@ -122,7 +122,7 @@ describe('api module', () => {
         fetch.mockResolvedValueOnce({
             ok: true,
             headers: {
-                get: () => 'application/json'
+                get: (name) => (name === 'content-type' ? 'application/json' : null)
             },
             text: () => Promise.resolve(JSON.stringify([]))
         });
@@ -130,7 +130,7 @@ describe('api module', () => {
         await api.getCharacters();
 
         expect(fetch).toHaveBeenCalledWith(
-            expect.any(String),
+            expect.stringContaining('/characters?limit=500'),
             expect.objectContaining({
                 headers: expect.objectContaining({
                     Authorization: 'Bearer test-token'
@@ -139,6 +139,56 @@ describe('api module', () => {
         );
     });
 
+    it('follows the next-page cursor of list endpoints', async () => {
+        fetch
+            .mockResolvedValueOnce({
+                ok: true,
+                headers: {
+                    get: (name) => ({ 'content-type': 'application/json', 'X-Next-Cursor': 'abc' }[name] ?? null)
+                },
+                text: () => Promise.resolve(JSON.stringify([{ id: 1 }]))
+            })
+            .mockResolvedValueOnce({
+                ok: true,
+                headers: {
+                    get: (name) => (name === 'content-type' ? 'application/json' : null)
+                },
+                text: () => Promise.resolve(JSON.stringify([{ id: 2 }]))
+            });
+
+        const items = await api.getItems();
+
+        expect(items).toEqual([{ id: 1 }, { id: 2 }]);
+        expect(fetch).toHaveBeenLastCalledWith(
+            expect.stringContaining('/items?limit=500&after=abc'),
+            expect.any(Object)
+        );
+    });
+
+    it('retries after the Retry-After delay when rate limited', async () => {
+        fetch
+            .mockResolvedValueOnce({
+                ok: false,
+                status: 429,
+                headers: {
+                    get: (name) => ({ 'content-type': 'application/json', 'Retry-After': '0' }[name] ?? null)
+                },
+                json: () => Promise.resolve({ error: 'Too many requests' })
+            })
+            .mockResolvedValueOnce({
+                ok: true,
+                headers: {
+                    get: (name) => (name === 'content-type' ? 'application/json' : null)
+                },
+                text: () => Promise.resolve(JSON.stringify([{ id: 1 }]))
+            });
+
+        const items = await api.getItems();
+
+        expect(items).toEqual([{ id: 1 }]);
+        expect(fetch).toHaveBeenCalledTimes(2);
+    });
+
     it('handles 401 response by clearing auth data', async () => {
         localStorage.setItem('token', 'expired-token');
         localStorage.setItem('user', JSON.stringify({ username: 'test' }));
@@ -13,6 +13,14 @@ const classes = [
     'WARLOCK', 'WIZARD'
 ];
 
+// Applies a change or deletion event from the server to the character summaries.
+function applyChange(characters, change) {
+    if (change.op === 'deleted') {
+        return characters.filter((char) => char.id !== change.id);
+    }
+    return characters.map((char) => (char.id === change.id ? { ...char, ...change.fields } : char));
+}
+
 export default function CharacterManager() {
     const [characters, setCharacters] = useState([]);
     const [loading, setLoading] = useState(true);
@@ -50,6 +58,16 @@ export default function CharacterManager() {
         loadAvailableData();
     }, []);
 
+    // Edits made by other players show up in the list; new characters and lost events need a fresh list.
+    useEffect(() => {
+        const refresh = () => api.getCharacters().then(setCharacters).catch(() => {});
+        return api.subscribeChanges(
+            (change) => change.op === 'created'
+                ? refresh()
+                : setCharacters((current) => applyChange(current, change)),
+            { types: ['characters'], onResync: refresh });
+    }, []);
+
     const loadCharacters = async () => {
         setLoading(true);
         try {
@@ -74,6 +92,15 @@ export default function CharacterManager() {
         }
     };
 
+    // The list holds summaries; load the full character (stats, items, spells) only when it is opened.
+    const openCharacter = async (id) => {
+        try {
+            startEditing(await api.getCharacter(id));
+        } catch (err) {
+            alert('Failed to load character: ' + err.message);
+        }
+    };
+
     const startEditing = (char) => {
         setEditingCharacter(char);
         setForm({
@@ -254,11 +281,11 @@ export default function CharacterManager() {
                             >
                                 <div>
                                     <span className="font-bold text-yellow-300">{char.name}</span> —{' '}
-                                    {char.race?.name} {char.characterClass?.name} • Level {char.level}
+                                    {char.race} {char.characterClass} • Level {char.level}
                                 </div>
                                 <div className="flex gap-3">
                                     <button
-                                        onClick={() => startEditing(char)}
+                                        onClick={() => openCharacter(char.id)}
                                         className="bg-yellow-400 text-gray-900 px-4 py-1 rounded hover:bg-yellow-500 transition"
                                     >
                                         Edit
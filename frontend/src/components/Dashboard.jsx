@@ -4,6 +4,7 @@ import { api } from '../api';
 
 export default function Dashboard() {
   const [characters, setCharacters] = useState([]);
+  const [partyDetails, setPartyDetails] = useState({});
   const [locations, setLocations] = useState([]);
   const [selectedCharacterIds, setSelectedCharacterIds] = useState(() => {
     const saved = localStorage.getItem('selectedCharacterIds');
@@ -50,6 +51,20 @@ export default function Dashboard() {
     localStorage.setItem('selectedCharacterIds', JSON.stringify(selectedCharacterIds));
   }, [selectedCharacterIds]);
 
+  // The character list holds summaries; only the party members are loaded in full.
+  useEffect(() => {
+    const missing = selectedCharacterIds.filter(id => !partyDetails[id]);
+    if (!missing.length) return;
+    Promise.all(missing.map(id => api.getCharacter(id).catch(() => null)))
+        .then(loaded => setPartyDetails(prev => {
+          const found = loaded.filter(Boolean);
+          if (!found.length) return prev;
+          const next = { ...prev };
+          found.forEach(char => { next[char.id] = char; });
+          return next;
+        }));
+  }, [selectedCharacterIds, partyDetails]);
+
   useEffect(() => {
     if (selectedLocationId !== null) {
       localStorage.setItem('selectedLocationId', selectedLocationId);
@@ -92,18 +107,20 @@ export default function Dashboard() {
   const healParty = async () => {
     try {
       const healed = await api.healParty(selectedCharacterIds);
-      setCharacters(prev =>
-          prev.map(c => {
-            const healedChar = healed.find(h => h.id === c.id);
-            return healedChar ? healedChar : c;
-          })
-      );
+      const withVitals = c => {
+        const vitals = healed.find(h => h.id === c.id);
+        return vitals ? { ...c, ...vitals } : c;
+      };
+      setCharacters(prev => prev.map(withVitals));
+      setPartyDetails(prev => Object.fromEntries(
+          Object.entries(prev).map(([id, c]) => [id, withVitals(c)])
+      ));
     } catch (err) {
       console.error('Failed to heal party', err);
     }
   };
 
-  const selectedCharacters = characters.filter(char => selectedCharacterIds.includes(char.id));
+  const selectedCharacters = selectedCharacterIds.map(id => partyDetails[id]).filter(Boolean);
   const selectedLocation = locations.find(l => l.id === selectedLocationId);
   const npcsInLocation = selectedLocation?.npcs || [];
   const hostileNpcs = npcsInLocation.filter(npc => hostileNpcIds.includes(npc.id));
@@ -126,7 +143,7 @@ export default function Dashboard() {
                           value={char.id}
                           disabled={selectedCharacterIds.includes(char.id)}
                       >
-                        {char.name} - Level {char.level} {char.characterClass?.name}
+                        {char.name} - Level {char.level} {char.characterClass}
                       </option>
                   ))}
                 </select>